@@ -24,7 +24,10 @@ import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.LayoutManager;
 import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.support.v7.widget.helper.ItemTouchHelper;
+import android.util.SparseIntArray;
 
+import com.drextended.rvdatabinding.adapter.AdaptivePoolSizer;
+import com.drextended.rvdatabinding.adapter.BaseBindableAdapter;
 import com.drextended.rvdatabinding.adapter.ColorDividerItemDecoration;
 import com.drextended.rvdatabinding.adapter.DividerItemDecoration;
 
@@ -43,13 +46,19 @@ public class ListConfig {
     private final List<RecyclerView.OnScrollListener> mScrollListeners;
     private final ItemTouchHelper mItemTouchHelper;
     private final boolean mHasFixedSize;
+    private final RecyclerView.RecycledViewPool mRecycledViewPool;
+    private final SparseIntArray mMaxRecycledViews;
+    private final AdaptivePoolSizer mPoolSizer;
 
     private ListConfig(final RecyclerView.Adapter adapter,
                        final LayoutManagerProvider layoutManagerProvider,
                        final RecyclerView.ItemAnimator itemAnimator, final List<RecyclerView.ItemDecoration> itemDecorations,
                        final List<RecyclerView.OnScrollListener> scrollListeners,
                        final ItemTouchHelper itemTouchHelper,
-                       final boolean hasFixedSize) {
+                       final boolean hasFixedSize,
+                       final RecyclerView.RecycledViewPool recycledViewPool,
+                       final SparseIntArray maxRecycledViews,
+                       final AdaptivePoolSizer poolSizer) {
         mAdapter = adapter;
         mLayoutManagerProvider = layoutManagerProvider;
         mItemAnimator = itemAnimator;
@@ -57,6 +66,9 @@ public class ListConfig {
         mScrollListeners = scrollListeners != null ? scrollListeners : Collections.<RecyclerView.OnScrollListener>emptyList();
         mItemTouchHelper = itemTouchHelper;
         mHasFixedSize = hasFixedSize;
+        mRecycledViewPool = recycledViewPool;
+        mMaxRecycledViews = maxRecycledViews;
+        mPoolSizer = poolSizer;
     }
 
     /**
@@ -69,20 +81,40 @@ public class ListConfig {
         final LayoutManager layoutManager;
         if (mAdapter == null || mLayoutManagerProvider == null || (layoutManager = mLayoutManagerProvider.get(context)) == null)
             return;
-        recyclerView.setLayoutManager(layoutManager);
-        recyclerView.setHasFixedSize(mHasFixedSize);
-        recyclerView.setAdapter(mAdapter);
-        for (RecyclerView.ItemDecoration itemDecoration : mItemDecorations) {
-            recyclerView.addItemDecoration(itemDecoration);
-        }
-        for (RecyclerView.OnScrollListener scrollListener : mScrollListeners) {
-            recyclerView.addOnScrollListener(scrollListener);
-        }
-        if (mItemAnimator != null) {
-            recyclerView.setItemAnimator(mItemAnimator);
-        }
-        if (mItemTouchHelper != null) {
-            mItemTouchHelper.attachToRecyclerView(recyclerView);
+        final boolean trace = Tracing.isEnabled();
+        if (trace) Tracing.beginSection(Tracing.SECTION_APPLY_CONFIG);
+        try {
+            recyclerView.setLayoutManager(layoutManager);
+            recyclerView.setHasFixedSize(mHasFixedSize);
+            recyclerView.setAdapter(mAdapter);
+            if (mRecycledViewPool != null) {
+                // pool must be set after adapter, otherwise RecyclerView clears it on adapter change
+                recyclerView.setRecycledViewPool(mRecycledViewPool);
+            }
+            if (mMaxRecycledViews != null) {
+                final RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+                for (int i = 0; i < mMaxRecycledViews.size(); i++) {
+                    final int viewType = mMaxRecycledViews.keyAt(i);
+                    // keep max count raised by the sizer, it is never below the configured one
+                    final int max = mPoolSizer != null
+                            ? mPoolSizer.getMaxRecycledViews(viewType) : mMaxRecycledViews.valueAt(i);
+                    pool.setMaxRecycledViews(viewType, max);
+                }
+            }
+            for (RecyclerView.ItemDecoration itemDecoration : mItemDecorations) {
+                recyclerView.addItemDecoration(itemDecoration);
+            }
+            for (RecyclerView.OnScrollListener scrollListener : mScrollListeners) {
+                recyclerView.addOnScrollListener(scrollListener);
+            }
+            if (mItemAnimator != null) {
+                recyclerView.setItemAnimator(mItemAnimator);
+            }
+            if (mItemTouchHelper != null) {
+                mItemTouchHelper.attachToRecyclerView(recyclerView);
+            }
+        } finally {
+            if (trace) Tracing.endSection();
         }
     }
 
@@ -99,6 +131,8 @@ public class ListConfig {
      *          .setItemAnimator(getItemAnimator())
      *          .setHasFixedSize(true)
      *          .setItemTouchHelper(getItemTouchHelper())
+     *          .setPreInflateCount(3)
+     *          .setPoolSizer(new AdaptivePoolSizer(new RecyclerView.RecycledViewPool()))
      *          .build(context);
      * }
      * </pre>
@@ -113,6 +147,10 @@ public class ListConfig {
         private ItemTouchHelper mItemTouchHelper;
         private boolean mHasFixedSize;
         private int mDefaultDividerSize = -1;
+        private int mPreInflateCount;
+        private RecyclerView.RecycledViewPool mRecycledViewPool;
+        private SparseIntArray mMaxRecycledViews;
+        private AdaptivePoolSizer mPoolSizer;
 
         /**
          * Creates new Builder for config RecyclerView with the adapter
@@ -225,6 +263,65 @@ public class ListConfig {
             return this;
         }
 
+        /**
+         * Set count of view holders to inflate in advance for each view type.
+         * Bindings are inflated on background thread when the config is built,
+         * so the first layout of RecyclerView does not need to inflate them on main thread.
+         * Applied only for {@link BaseBindableAdapter}, see
+         * {@link BaseBindableAdapter#preInflate(Context, RecyclerView.RecycledViewPool, int)}.
+         *
+         * @param count the count of view holders per view type
+         * @return the builder
+         */
+        public Builder setPreInflateCount(int count) {
+            mPreInflateCount = count;
+            return this;
+        }
+
+        /**
+         * Set {@link RecyclerView.RecycledViewPool} to share view holders between RecyclerViews.
+         * View holders are shared by view types, so delegates must provide view types stable
+         * across adapters, see {@link com.drextended.rvdatabinding.delegate.BaseBindingAdapterDelegate#getGlobalViewType()}.
+         *
+         * @param recycledViewPool the pool shared with other RecyclerViews
+         * @return the builder
+         */
+        public Builder setRecycledViewPool(RecyclerView.RecycledViewPool recycledViewPool) {
+            mRecycledViewPool = recycledViewPool;
+            return this;
+        }
+
+        /**
+         * Set max count of recycled view holders for the view type.
+         * Applied to {@link RecyclerView.RecycledViewPool#setMaxRecycledViews(int, int)}
+         *
+         * @param viewType the view type, for example the layout resource ID of items
+         *                 if it is used as global view type
+         * @param max      the max count of recycled view holders
+         * @return the builder
+         */
+        public Builder setMaxRecycledViews(int viewType, int max) {
+            if (mMaxRecycledViews == null) {
+                mMaxRecycledViews = new SparseIntArray();
+            }
+            mMaxRecycledViews.put(viewType, max);
+            return this;
+        }
+
+        /**
+         * Set sizer which tunes max count of recycled views per view type by observed pool misses.
+         * Applied only if adapter is {@link BaseBindableAdapter}. The pool of the sizer is set to RecyclerView,
+         * so if the pool is set by {@link #setRecycledViewPool(RecyclerView.RecycledViewPool)} as well,
+         * it must be the same.
+         *
+         * @param poolSizer the sizer
+         * @return the builder
+         */
+        public Builder setPoolSizer(AdaptivePoolSizer poolSizer) {
+            mPoolSizer = poolSizer;
+            return this;
+        }
+
         /**
          * Creates new {@link ListConfig} with defined configuration
          * If LayoutManagerProvider is not set, the {@link SimpleLinearLayoutManagerProvider}
@@ -241,6 +338,26 @@ public class ListConfig {
                         .getDimensionPixelSize(R.dimen.rvdb_list_divider_size_default);
                 addItemDecoration(new DividerItemDecoration(mDefaultDividerSize));
             }
+            final AdaptivePoolSizer poolSizer = mAdapter instanceof BaseBindableAdapter ? mPoolSizer : null;
+            RecyclerView.RecycledViewPool recycledViewPool = mRecycledViewPool;
+            if (poolSizer != null) {
+                if (recycledViewPool == null) {
+                    recycledViewPool = poolSizer.getRecycledViewPool();
+                } else if (recycledViewPool != poolSizer.getRecycledViewPool()) {
+                    throw new IllegalStateException("Pool sizer tunes another RecycledViewPool");
+                }
+                if (mMaxRecycledViews != null) {
+                    for (int i = 0; i < mMaxRecycledViews.size(); i++) {
+                        poolSizer.setBaseMaxRecycledViews(mMaxRecycledViews.keyAt(i), mMaxRecycledViews.valueAt(i));
+                    }
+                }
+                // set before pre-inflation, so raised max counts are registered in the sizer
+                ((BaseBindableAdapter) mAdapter).setPoolSizer(poolSizer);
+            }
+            if (mPreInflateCount > 0 && mAdapter instanceof BaseBindableAdapter) {
+                if (recycledViewPool == null) recycledViewPool = new RecyclerView.RecycledViewPool();
+                ((BaseBindableAdapter) mAdapter).preInflate(context, recycledViewPool, mPreInflateCount);
+            }
 
             return new ListConfig(
                     mAdapter,
@@ -248,7 +365,10 @@ public class ListConfig {
                     mItemAnimator, mItemDecorations,
                     mOnScrollListeners,
                     mItemTouchHelper,
-                    mHasFixedSize);
+                    mHasFixedSize,
+                    recycledViewPool,
+                    mMaxRecycledViews,
+                    poolSizer);
         }
     }
 
@@ -263,9 +383,19 @@ public class ListConfig {
      * The simple LayoutManager provider for {@link LinearLayoutManager}
      */
     public static class SimpleLinearLayoutManagerProvider implements LayoutManagerProvider {
+        private final int mOrientation;
+
+        public SimpleLinearLayoutManagerProvider() {
+            this(LinearLayoutManager.VERTICAL);
+        }
+
+        public SimpleLinearLayoutManagerProvider(final int orientation) {
+            mOrientation = orientation;
+        }
+
         @Override
         public LayoutManager get(Context context) {
-            return new LinearLayoutManager(context);
+            return new LinearLayoutManager(context, mOrientation, false);
         }
     }
 
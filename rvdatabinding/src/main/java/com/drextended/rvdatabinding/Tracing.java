@@ -0,0 +1,84 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding;
+
+import android.support.v4.os.TraceCompat;
+
+/**
+ * Switch for system trace sections around creating and binding view holders, applying list config
+ * and dispatching list updates. Sections are visible in systrace and Perfetto.
+ * Check {@link #isEnabled()} once before {@link #beginSection(String)} and use the result
+ * for the matching {@link #endSection()}, so sections stay balanced if the switch is changed in between.
+ */
+public final class Tracing {
+
+    /**
+     * Max length of section name allowed by {@link android.os.Trace}
+     */
+    public static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    public static final String SECTION_APPLY_CONFIG = "RVDB applyConfig";
+    public static final String SECTION_DIFF_DISPATCH = "RVDB diff dispatch";
+    public static final String SECTION_BATCH_FLUSH = "RVDB batch flush";
+
+    private static volatile boolean sEnabled;
+
+    private Tracing() {
+    }
+
+    /**
+     * Enable or disable trace sections. Disabled by default.
+     *
+     * @param enabled true to write trace sections
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    /**
+     * @return true if trace sections are enabled
+     */
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Begin trace section. Name must be precomputed to avoid allocations while tracing.
+     *
+     * @param sectionName the name of section, not longer than {@link #MAX_SECTION_NAME_LENGTH}
+     */
+    public static void beginSection(String sectionName) {
+        TraceCompat.beginSection(sectionName);
+    }
+
+    /**
+     * End the last begun trace section
+     */
+    public static void endSection() {
+        TraceCompat.endSection();
+    }
+
+    /**
+     * Create section name cut to {@link #MAX_SECTION_NAME_LENGTH}
+     *
+     * @param name the name
+     * @return the section name
+     */
+    public static String sectionName(String name) {
+        return name.length() > MAX_SECTION_NAME_LENGTH ? name.substring(0, MAX_SECTION_NAME_LENGTH) : name;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.ViewGroup;
+
+/**
+ * Tunes max count of recycled views per view type in RecycledViewPool by observed pool misses.
+ * A view type is warmed up when its first view holder is recycled. After that a view holder created
+ * for it by RecyclerView using the tuned pool, while the pool has no holder of this type, is a miss,
+ * so its max count is increased while total max count of all view types fits the budget.
+ * The initial fill of the pool and pre-inflated view holders are not counted. Holders in the pool are counted
+ * by recycled and reused {@link BindingHolder}s, so other view holders are not tracked.
+ * If the view type is recycled many times without misses, its max count is decreased back to its base
+ * one step at a time.
+ * The base is {@link #DEFAULT_MAX_SCRAP}, or the max count configured elsewhere and registered
+ * by {@link #setBaseMaxRecycledViews(int, int)}, which the sizer never goes below.
+ * <p>
+ * Set it to {@link BaseBindableAdapter#setPoolSizer(AdaptivePoolSizer)} or
+ * {@link com.drextended.rvdatabinding.ListConfig.Builder#setPoolSizer(AdaptivePoolSizer)}.
+ * If RecycledViewPool is shared between RecyclerViews, share the same sizer as well.
+ * <pre>
+ * {@code
+ *      RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+ *      AdaptivePoolSizer poolSizer = new AdaptivePoolSizer(pool);
+ * }
+ * </pre>
+ * Must be used on main thread.
+ */
+public class AdaptivePoolSizer {
+
+    /**
+     * Default max count of scrap views per view type in RecycledViewPool
+     */
+    public static final int DEFAULT_MAX_SCRAP = 5;
+
+    /**
+     * Default budget of recycled views for all view types
+     */
+    public static final int DEFAULT_BUDGET = 40;
+
+    /**
+     * Count of recycles without misses, multiplied by max count of view type, for decreasing the max count
+     */
+    private static final int SHRINK_FACTOR = 8;
+
+    private final int mBudget;
+    private final SparseArray<ViewTypeStats> mStats = new SparseArray<>();
+    private final RecyclerView.RecycledViewPool mPool;
+    private int mTotalMax;
+
+    /**
+     * Creates sizer with {@link #DEFAULT_BUDGET}
+     *
+     * @param pool the pool to tune
+     */
+    public AdaptivePoolSizer(@NonNull RecyclerView.RecycledViewPool pool) {
+        this(pool, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates sizer
+     *
+     * @param pool   the pool to tune
+     * @param budget max count of recycled views for all view types together,
+     *               view types which have not reached the budget keep {@link #DEFAULT_MAX_SCRAP}
+     */
+    public AdaptivePoolSizer(@NonNull RecyclerView.RecycledViewPool pool, int budget) {
+        mPool = pool;
+        mBudget = budget;
+    }
+
+    /**
+     * Register max count of recycled views configured for the view type outside of the sizer,
+     * for example by {@link com.drextended.rvdatabinding.ListConfig.Builder#setMaxRecycledViews(int, int)}
+     * or pre-inflation. The sizer starts from it and never decreases max count below it.
+     * Max count already increased by the sizer above the previous base is kept.
+     *
+     * @param viewType the view type exposed to RecyclerView
+     * @param max      the configured max count
+     */
+    public void setBaseMaxRecycledViews(int viewType, int max) {
+        final ViewTypeStats stats = getStats(viewType);
+        final int oldBase = stats.base;
+        stats.base = max;
+        if (stats.max == oldBase || stats.max < max) setMax(viewType, stats, max);
+    }
+
+    /**
+     * Called by adapter when view holder is created, not counting pre-inflated ones
+     *
+     * @param parent   the parent passed to {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)}
+     * @param viewType the view type exposed to RecyclerView
+     */
+    void onViewHolderCreated(ViewGroup parent, int viewType) {
+        // RecyclerView with another pool does not take holders from the tuned one
+        if (!(parent instanceof RecyclerView) || ((RecyclerView) parent).getRecycledViewPool() != mPool) return;
+        final ViewTypeStats stats = getStats(viewType);
+        if (!stats.warmedUp || stats.pooled > 0) return;
+        stats.misses++;
+        stats.recyclesWithoutMiss = 0;
+        if (mTotalMax < mBudget) {
+            setMax(viewType, stats, stats.max + 1);
+        }
+    }
+
+    /**
+     * Called when {@link BindingHolder} is put to the pool by recycling or pre-inflation.
+     * Holders exceeding max count are dropped by the pool, so they are not counted.
+     *
+     * @param viewType the view type exposed to RecyclerView
+     */
+    void onViewHolderPooled(int viewType) {
+        final ViewTypeStats stats = getStats(viewType);
+        if (stats.pooled < stats.max) stats.pooled++;
+    }
+
+    /**
+     * Called by adapter when {@link BindingHolder} taken from the pool is bound
+     *
+     * @param viewType the view type exposed to RecyclerView
+     */
+    void onViewHolderReused(int viewType) {
+        final ViewTypeStats stats = getStats(viewType);
+        if (stats.pooled > 0) stats.pooled--;
+    }
+
+    /**
+     * Called by adapter when view holder is recycled
+     *
+     * @param viewType the view type exposed to RecyclerView
+     */
+    void onViewHolderRecycled(int viewType) {
+        final ViewTypeStats stats = getStats(viewType);
+        stats.warmedUp = true;
+        if (stats.max > stats.base && ++stats.recyclesWithoutMiss >= stats.max * SHRINK_FACTOR) {
+            stats.recyclesWithoutMiss = 0;
+            setMax(viewType, stats, stats.max - 1);
+        }
+    }
+
+    /**
+     * Get max count of recycled views set for the view type by this sizer
+     *
+     * @param viewType the view type exposed to RecyclerView
+     * @return the max count
+     */
+    public int getMaxRecycledViews(int viewType) {
+        final ViewTypeStats stats = mStats.get(viewType);
+        return stats != null ? stats.max : DEFAULT_MAX_SCRAP;
+    }
+
+    /**
+     * Get count of view holders created for the view type after it was warmed up
+     *
+     * @param viewType the view type exposed to RecyclerView
+     * @return the count of pool misses
+     */
+    public int getMissCount(int viewType) {
+        final ViewTypeStats stats = mStats.get(viewType);
+        return stats != null ? stats.misses : 0;
+    }
+
+    /**
+     * @return the pool tuned by this sizer
+     */
+    @NonNull
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return mPool;
+    }
+
+    private ViewTypeStats getStats(int viewType) {
+        ViewTypeStats stats = mStats.get(viewType);
+        if (stats == null) {
+            stats = new ViewTypeStats();
+            mStats.put(viewType, stats);
+            mTotalMax += stats.max;
+        }
+        return stats;
+    }
+
+    private void setMax(int viewType, ViewTypeStats stats, int max) {
+        mTotalMax += max - stats.max;
+        stats.max = max;
+        if (stats.pooled > max) stats.pooled = max;
+        mPool.setMaxRecycledViews(viewType, max);
+    }
+
+    private static class ViewTypeStats {
+        int base = DEFAULT_MAX_SCRAP;
+        int max = DEFAULT_MAX_SCRAP;
+        int misses;
+        int pooled;
+        int recyclesWithoutMiss;
+        boolean warmedUp;
+    }
+}
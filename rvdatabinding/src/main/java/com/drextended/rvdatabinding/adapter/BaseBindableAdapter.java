@@ -16,14 +16,27 @@
 
 package com.drextended.rvdatabinding.adapter;
 
+import android.content.Context;
+import android.content.res.Resources;
+import android.databinding.ViewDataBinding;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.ViewGroup;
 
+import com.drextended.rvdatabinding.Tracing;
+import com.drextended.rvdatabinding.delegate.BaseBindingAdapterDelegate;
+import com.drextended.rvdatabinding.delegate.BaseListBindingAdapterDelegate;
+import com.drextended.rvdatabinding.delegate.DelegateMetrics;
 import com.drextended.rvdatabinding.delegate.IdHolder;
 import com.hannesdorfmann.adapterdelegates2.AbsDelegationAdapter;
 import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
 import com.hannesdorfmann.adapterdelegates2.AdapterDelegatesManager;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * RecyclerView Adapter for using with data binding. Dataset can be any type, not only List of items.
  * Based on AdapterDelegates Library by Hannes Dorfmann https://github.com/sockeqwe/AdapterDelegates
@@ -32,6 +45,73 @@ import com.hannesdorfmann.adapterdelegates2.AdapterDelegatesManager;
  */
 public abstract class BaseBindableAdapter<T> extends AbsDelegationAdapter<T> {
 
+    /**
+     * Default time in milliseconds a view holder must stay attached to bind its deferred variables while scrolling
+     */
+    public static final long DEFAULT_DEFERRED_BINDING_DELAY = 250;
+
+    /**
+     * Source of view types for delegates without global view type. Allocated view types are negative
+     * and unique in the process, so they never clash with view types of other adapters sharing the pool.
+     */
+    private static final AtomicInteger sNextPrivateViewType = new AtomicInteger(RecyclerView.INVALID_TYPE);
+
+    /**
+     * Delegates registered by this adapter in order of their view types.
+     * Null if delegates manager was provided from outside.
+     */
+    private AdapterDelegate<T>[] mDelegates;
+
+    /**
+     * View types exposed to RecyclerView for delegates registered by this adapter. Delegates are registered
+     * in delegates manager with local view types equal to their index to keep the order of checking them,
+     * and their global view types (see {@link BaseBindingAdapterDelegate#getGlobalViewType()})
+     * are exposed to RecyclerView, so view holders can be shared through RecycledViewPool.
+     * Delegates without global view type get view types private to this adapter.
+     */
+    private int[] mViewTypes;
+
+    /**
+     * Binding inflated in advance, which is used for the view holder being created
+     */
+    private ViewDataBinding mPreInflatedBinding;
+
+    /**
+     * Index of view types by item class. Available only if delegates are registered by this adapter,
+     * so their view types are known.
+     */
+    private ViewTypeIndex mViewTypeIndex;
+
+    /**
+     * Resolved view types by item position. Kept in sync with the data set by observing this adapter.
+     */
+    private final ViewTypeCache mViewTypeCache = new ViewTypeCache();
+
+    /**
+     * Index of positions by item ids. Created on first lookup.
+     */
+    private ItemIdIndex mItemIdIndex;
+
+    /**
+     * Sizer of RecycledViewPool notified about created and recycled view holders
+     */
+    private AdaptivePoolSizer mPoolSizer;
+
+    /**
+     * Trace section names by local view types, created on first use
+     */
+    private SparseArray<String> mCreateTraceSections;
+    private SparseArray<String> mBindTraceSections;
+
+    /**
+     * Binder of deferred variables of view holders, see {@link BindingHolder#setDeferredVariable(int, Object)}
+     */
+    private final DeferredBinder mDeferredBinder = new DeferredBinder(DEFAULT_DEFERRED_BINDING_DELAY);
+
+    {
+        registerAdapterDataObserver(mViewTypeCache);
+    }
+
     /**
      * Creates Adapter with empty adapter delegates manager
      */
@@ -45,6 +125,14 @@ public abstract class BaseBindableAdapter<T> extends AbsDelegationAdapter<T> {
     public BaseBindableAdapter(AdapterDelegate<T>... delegates) {
         super(new AdapterDelegatesManager<T>());
         for (AdapterDelegate<T> delegate : delegates) delegatesManager.addDelegate(delegate);
+        mDelegates = delegates;
+        mViewTypes = new int[delegates.length];
+        for (int i = 0; i < delegates.length; i++) {
+            mViewTypes[i] = getGlobalViewType(delegates[i], i);
+        }
+        final ViewTypeIndex viewTypeIndex = new ViewTypeIndex(delegates);
+        if (viewTypeIndex.isEnabled()) mViewTypeIndex = viewTypeIndex;
+        if (hasStableIds(delegates)) setHasStableIds(true);
     }
 
     public BaseBindableAdapter(T items, AdapterDelegatesManager<T> delegatesManager) {
@@ -57,6 +145,435 @@ public abstract class BaseBindableAdapter<T> extends AbsDelegationAdapter<T> {
         setItems(items);
     }
 
+    /**
+     * Stable ids can be changed only while there are no registered observers, and the view type cache
+     * observes the adapter since construction, so internal observers are unregistered for the change.
+     */
+    @Override
+    public void setHasStableIds(boolean hasStableIds) {
+        unregisterAdapterDataObserver(mViewTypeCache);
+        if (mItemIdIndex != null) unregisterAdapterDataObserver(mItemIdIndex);
+        try {
+            super.setHasStableIds(hasStableIds);
+        } finally {
+            registerAdapterDataObserver(mViewTypeCache);
+            if (mItemIdIndex != null) registerAdapterDataObserver(mItemIdIndex);
+        }
+    }
+
+    @Override
+    public void setItems(T items) {
+        super.setItems(items);
+        invalidateItemCaches();
+    }
+
+    /**
+     * Invalidate view types cached by position and index of item ids. Call it if the data set
+     * was changed while the adapter could not be notified.
+     */
+    protected void invalidateItemCaches() {
+        mViewTypeCache.clear();
+        if (mItemIdIndex != null) mItemIdIndex.onChanged();
+    }
+
+    /**
+     * Inflates bindings for all delegates on background thread and puts view holders into the pool,
+     * so RecyclerView does not need to inflate them on main thread on first layout.
+     * Only delegates passed to the adapter constructor and extending {@link BaseBindingAdapterDelegate}
+     * with known {@link BaseBindingAdapterDelegate#getItemLayoutResId()} are pre-inflated.
+     * The pool must be set to RecyclerView after the adapter, see
+     * {@link com.drextended.rvdatabinding.ListConfig.Builder#setPreInflateCount(int)}.
+     * Must be called on main thread.
+     *
+     * @param context          the context
+     * @param pool             the pool to put view holders to
+     * @param countPerViewType the count of view holders to create for each view type
+     */
+    public void preInflate(@NonNull Context context, @NonNull RecyclerView.RecycledViewPool pool, int countPerViewType) {
+        if (mDelegates == null || countPerViewType <= 0) return;
+        final int[] counts = new int[mDelegates.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = countPerViewType;
+        }
+        preInflate(context, pool, counts);
+    }
+
+    /**
+     * Inflates bindings for the delegate on background thread and puts view holders into the pool.
+     * See {@link #preInflate(Context, RecyclerView.RecycledViewPool, int)}.
+     *
+     * @param context  the context
+     * @param pool     the pool to put view holders to
+     * @param delegate the delegate passed to the adapter constructor
+     * @param count    the count of view holders to create
+     */
+    public void preInflate(@NonNull Context context, @NonNull RecyclerView.RecycledViewPool pool,
+                           @NonNull AdapterDelegate<T> delegate, int count) {
+        if (mDelegates == null || count <= 0) return;
+        final int[] counts = new int[mDelegates.length];
+        for (int i = 0; i < counts.length; i++) {
+            if (mDelegates[i] == delegate) counts[i] = count;
+        }
+        preInflate(context, pool, counts);
+    }
+
+    private void preInflate(Context context, RecyclerView.RecycledViewPool pool, int[] counts) {
+        final int[] viewTypes = new int[counts.length];
+        final int[] layouts = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            viewTypes[i] = mViewTypes[i];
+            if (mDelegates[i] instanceof BaseBindingAdapterDelegate) {
+                layouts[i] = ((BaseBindingAdapterDelegate) mDelegates[i]).getItemLayoutResId();
+            }
+            if (layouts[i] == 0) counts[i] = 0;
+        }
+        new BindingPreInflater(context, this, pool, viewTypes, layouts, counts).start();
+    }
+
+    /**
+     * Creates view holder for the binding inflated in advance
+     */
+    RecyclerView.ViewHolder createViewHolder(ViewGroup parent, int viewType, ViewDataBinding binding) {
+        mPreInflatedBinding = binding;
+        try {
+            return createViewHolder(parent, viewType);
+        } finally {
+            mPreInflatedBinding = null;
+        }
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        final int localViewType = toLocalViewType(viewType);
+        if (mPreInflatedBinding != null) {
+            final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(localViewType);
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                //noinspection unchecked
+                return ((BaseBindingAdapterDelegate) delegate).onCreateViewHolder(mPreInflatedBinding);
+            }
+        } else if (mPoolSizer != null) {
+            mPoolSizer.onViewHolderCreated(parent, viewType);
+        }
+        final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(localViewType);
+        if (delegate == null) return super.onCreateViewHolder(parent, localViewType);
+        final boolean trace = Tracing.isEnabled();
+        if (trace) Tracing.beginSection(getTraceSection(parent.getContext(), delegate, localViewType, true));
+        try {
+            final DelegateMetrics metrics = delegate instanceof BaseBindingAdapterDelegate
+                    ? ((BaseBindingAdapterDelegate) delegate).getMetrics() : null;
+            if (metrics == null) return delegate.onCreateViewHolder(parent);
+            final long start = System.nanoTime();
+            final RecyclerView.ViewHolder holder = delegate.onCreateViewHolder(parent);
+            metrics.getCreateLatency().record(System.nanoTime() - start);
+            return holder;
+        } finally {
+            if (trace) Tracing.endSection();
+        }
+    }
+
+    /**
+     * Enable or disable measuring latencies for all delegates passed to the adapter constructor
+     * which extend {@link BaseBindingAdapterDelegate}, see {@link BaseBindingAdapterDelegate#setMetricsEnabled(boolean)}.
+     *
+     * @param enabled true to measure latencies
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (mDelegates == null) return;
+        for (AdapterDelegate<T> delegate : mDelegates) {
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                ((BaseBindingAdapterDelegate) delegate).setMetricsEnabled(enabled);
+            }
+        }
+    }
+
+    /**
+     * Set policy of executing pending bindings for all delegates passed to the adapter constructor
+     * which extend {@link BaseBindingAdapterDelegate}, see {@link BaseBindingAdapterDelegate#setExecutionPolicy(int)}.
+     *
+     * @param executionPolicy the policy
+     */
+    public void setExecutionPolicy(int executionPolicy) {
+        if (mDelegates == null) return;
+        for (AdapterDelegate<T> delegate : mDelegates) {
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                ((BaseBindingAdapterDelegate) delegate).setExecutionPolicy(executionPolicy);
+            }
+        }
+    }
+
+    /**
+     * Get latencies of the delegate for the view type
+     *
+     * @param viewType the view type as returned by {@link #getItemViewType(int)}
+     * @return the metrics or null if the delegate does not measure latencies
+     */
+    @Nullable
+    public DelegateMetrics getMetrics(int viewType) {
+        final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(toLocalViewType(viewType));
+        return delegate instanceof BaseBindingAdapterDelegate
+                ? ((BaseBindingAdapterDelegate) delegate).getMetrics() : null;
+    }
+
+    /**
+     * Get view types of delegates passed to the adapter constructor, for example for polling
+     * {@link #getMetrics(int)}.
+     *
+     * @return the copy of view types in order of delegates or empty array if delegates manager was provided from outside
+     */
+    @NonNull
+    public int[] getViewTypes() {
+        return mViewTypes != null ? mViewTypes.clone() : new int[0];
+    }
+
+    @Override
+    public void onViewRecycled(RecyclerView.ViewHolder holder) {
+        super.onViewRecycled(holder);
+        if (holder instanceof BindingHolder) {
+            mDeferredBinder.cancel((BindingHolder<?>) holder);
+            final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(toLocalViewType(holder.getItemViewType()));
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                //noinspection unchecked
+                ((BaseBindingAdapterDelegate) delegate).onViewRecycled((BindingHolder) holder);
+            }
+        }
+        if (mPoolSizer != null) {
+            mPoolSizer.onViewHolderRecycled(holder.getItemViewType());
+            if (holder instanceof BindingHolder) {
+                ((BindingHolder<?>) holder).mPooled = true;
+                mPoolSizer.onViewHolderPooled(holder.getItemViewType());
+            }
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(RecyclerView.ViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        if (holder instanceof BindingHolder) mDeferredBinder.onViewAttachedToWindow((BindingHolder<?>) holder);
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(RecyclerView.ViewHolder holder) {
+        super.onViewDetachedFromWindow(holder);
+        if (holder instanceof BindingHolder) mDeferredBinder.onViewDetachedFromWindow((BindingHolder<?>) holder);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mDeferredBinder.onAttachedToRecyclerView(recyclerView);
+        if (mDelegates == null) return;
+        for (AdapterDelegate<T> delegate : mDelegates) {
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                ((BaseBindingAdapterDelegate) delegate).onAttachedToRecyclerView(recyclerView);
+            }
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mDeferredBinder.onDetachedFromRecyclerView(recyclerView);
+        if (mDelegates == null) return;
+        for (AdapterDelegate<T> delegate : mDelegates) {
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                ((BaseBindingAdapterDelegate) delegate).onDetachedFromRecyclerView(recyclerView);
+            }
+        }
+    }
+
+    /**
+     * Set time a view holder must stay attached to bind its deferred variables while the list is scrolled,
+     * see {@link BindingHolder#setDeferredVariable(int, Object)}.
+     * Default value is {@link #DEFAULT_DEFERRED_BINDING_DELAY}.
+     *
+     * @param delayMillis the delay in milliseconds
+     */
+    public void setDeferredBindingDelay(long delayMillis) {
+        mDeferredBinder.setDelay(delayMillis);
+    }
+
+    /**
+     * Set sizer which tunes max count of recycled views per view type by observed pool misses.
+     * The pool of the sizer must be set to RecyclerView, see {@link AdaptivePoolSizer#getRecycledViewPool()}.
+     *
+     * @param poolSizer the sizer or null to stop tuning
+     */
+    public void setPoolSizer(@Nullable AdaptivePoolSizer poolSizer) {
+        mPoolSizer = poolSizer;
+    }
+
+    @Nullable
+    AdaptivePoolSizer getPoolSizer() {
+        return mPoolSizer;
+    }
+
+    /**
+     * Get view type of item. View types are cached by position until the data set changes.
+     * If delegates are chosen by the class of item
+     * (see {@link com.drextended.rvdatabinding.delegate.ModelClassHolder}),
+     * the view type is resolved once per item class, otherwise all delegates are scanned.
+     *
+     * @param position position of item in data source
+     * @return the view type
+     */
+    @Override
+    public int getItemViewType(int position) {
+        int viewType = mViewTypeCache.get(position);
+        if (viewType == ViewTypeCache.UNKNOWN) {
+            viewType = toGlobalViewType(resolveItemViewType(position));
+            mViewTypeCache.put(position, viewType);
+        }
+        return viewType;
+    }
+
+    private int resolveItemViewType(int position) {
+        final Object item;
+        if (mViewTypeIndex == null || (item = getItem(position)) == null) {
+            return delegatesManager.getItemViewType(items, position);
+        }
+        final Class<?> itemClass = item.getClass();
+        int viewType = mViewTypeIndex.get(itemClass);
+        if (viewType == ViewTypeIndex.NOT_INDEXED) {
+            return delegatesManager.getItemViewType(items, position);
+        }
+        if (viewType == ViewTypeIndex.UNKNOWN) {
+            viewType = delegatesManager.getItemViewType(items, position);
+            mViewTypeIndex.put(itemClass, viewType);
+        }
+        return viewType;
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        final int localViewType = toLocalViewType(holder.getItemViewType());
+        final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(localViewType);
+        if (delegate == null) {
+            super.onBindViewHolder(holder, position);
+            return;
+        }
+        if (holder instanceof BindingHolder) {
+            final BindingHolder<?> bindingHolder = (BindingHolder<?>) holder;
+            // deferred variables of the previous binding are stale
+            mDeferredBinder.cancel(bindingHolder);
+            bindingHolder.mDeferredBinder = mDeferredBinder;
+            if (bindingHolder.mPooled) {
+                bindingHolder.mPooled = false;
+                if (mPoolSizer != null) mPoolSizer.onViewHolderReused(holder.getItemViewType());
+            }
+        }
+        final boolean trace = Tracing.isEnabled();
+        if (trace) Tracing.beginSection(getTraceSection(holder.itemView.getContext(), delegate, localViewType, false));
+        try {
+            delegate.onBindViewHolder(items, position, holder);
+        } finally {
+            if (trace) Tracing.endSection();
+        }
+    }
+
+    /**
+     * Binds item with payloads. If payloads are not empty and the delegate for the view type is
+     * {@link BaseBindingAdapterDelegate}, the delegate is asked for partial rebinding,
+     * otherwise the item is fully rebound.
+     *
+     * @param holder   the view holder
+     * @param position position of item in data source
+     * @param payloads the payloads or empty list for full rebinding
+     */
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List payloads) {
+        if (!payloads.isEmpty()) {
+            final int localViewType = toLocalViewType(holder.getItemViewType());
+            final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(localViewType);
+            if (delegate instanceof BaseBindingAdapterDelegate) {
+                ((BindingHolder<?>) holder).mDeferredBinder = mDeferredBinder;
+                final boolean trace = Tracing.isEnabled();
+                if (trace) Tracing.beginSection(getTraceSection(holder.itemView.getContext(), delegate, localViewType, false));
+                try {
+                    //noinspection unchecked
+                    ((BaseBindingAdapterDelegate<T, ?>) delegate).onBindViewHolder(items, position, holder, payloads);
+                } finally {
+                    if (trace) Tracing.endSection();
+                }
+                return;
+            }
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    /**
+     * Get trace section name for creating or binding view holders by the delegate.
+     * Names are built once per view type, so tracing does not allocate afterwards.
+     */
+    private String getTraceSection(Context context, AdapterDelegate<T> delegate, int localViewType, boolean create) {
+        SparseArray<String> sections = create ? mCreateTraceSections : mBindTraceSections;
+        if (sections == null) {
+            sections = new SparseArray<>();
+            if (create) mCreateTraceSections = sections;
+            else mBindTraceSections = sections;
+        }
+        String section = sections.get(localViewType);
+        if (section == null) {
+            final Class<?> delegateClass = delegate.getClass();
+            final String className = delegateClass.getSimpleName().isEmpty()
+                    ? delegateClass.getName() : delegateClass.getSimpleName();
+            String layoutName = "";
+            final int layout = delegate instanceof BaseBindingAdapterDelegate
+                    ? ((BaseBindingAdapterDelegate) delegate).getItemLayoutResId() : 0;
+            if (layout != 0) {
+                try {
+                    layoutName = " " + context.getResources().getResourceEntryName(layout);
+                } catch (Resources.NotFoundException e) {
+                    layoutName = " " + layout;
+                }
+            }
+            section = Tracing.sectionName((create ? "RVDB create " : "RVDB bind ") + className + layoutName);
+            sections.put(localViewType, section);
+        }
+        return section;
+    }
+
+    private int toGlobalViewType(int localViewType) {
+        return mViewTypes != null && localViewType >= 0 && localViewType < mViewTypes.length
+                ? mViewTypes[localViewType] : localViewType;
+    }
+
+    private int toLocalViewType(int viewType) {
+        if (mViewTypes != null) {
+            for (int i = 0; i < mViewTypes.length; i++) {
+                if (mViewTypes[i] == viewType) return i;
+            }
+        }
+        return viewType;
+    }
+
+    /**
+     * Get global view type of delegate if it can be used in this adapter, otherwise allocate view type
+     * private to this adapter. Local view type is never exposed, as it would clash with local view types
+     * of other adapters sharing the pool.
+     */
+    private int getGlobalViewType(AdapterDelegate<T> delegate, int localViewType) {
+        final int viewType = delegate instanceof BaseBindingAdapterDelegate
+                ? ((BaseBindingAdapterDelegate) delegate).getGlobalViewType() : 0;
+        // must be positive, so it does not clash with private view types, and unique in this adapter
+        boolean usable = viewType > 0;
+        for (int i = 0; usable && i < localViewType; i++) {
+            if (mViewTypes[i] == viewType) usable = false;
+        }
+        return usable ? viewType : sNextPrivateViewType.decrementAndGet();
+    }
+
+    /**
+     * Get item by position. Used for resolving view type by the class of item.
+     * Returns null by default, so the view type is resolved by scanning all delegates.
+     *
+     * @param position position of item in data source
+     * @return the item or null if item can not be retrieved from data source by position
+     */
+    @Nullable
+    protected Object getItem(int position) {
+        return null;
+    }
+
     /**
      * Get item id if specific AdapterDelegate implement IdHolder interface
      *
@@ -65,6 +582,56 @@ public abstract class BaseBindableAdapter<T> extends AbsDelegationAdapter<T> {
      */
     @Override
     public long getItemId(int position) {
+        final int viewType = toLocalViewType(getItemViewType(position));
+        final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(viewType);
+        //noinspection unchecked
+        return delegate instanceof IdHolder ? ((IdHolder) delegate).getItemId(items, position) : RecyclerView.NO_ID;
+    }
+
+    /**
+     * Get position of item by its id. The index of positions is built on the first lookup and then
+     * updated by notifications of the adapter: ids of changed and inserted items are read again on the next lookup.
+     * Insertions and removals in the middle of the data set cost O(N) on the next lookup,
+     * {@link #notifyDataSetChanged()} causes full rebuilding. Lookups without changes take constant time.
+     *
+     * @param id the item id
+     * @return position of the item or {@link RecyclerView#NO_POSITION} if there is no item with such id
+     */
+    public int positionOf(long id) {
+        if (mItemIdIndex == null) {
+            mItemIdIndex = new ItemIdIndex();
+            registerAdapterDataObserver(mItemIdIndex);
+        }
+        return mItemIdIndex.positionOf(this, id);
+    }
+
+    /**
+     * Check whether all delegates provide stable ids, see {@link BaseListBindingAdapterDelegate#hasStableIds()}.
+     * Delegates implementing {@link IdHolder} directly are considered as providing stable ids.
+     *
+     * @param delegates the delegates
+     * @return true if all delegates provide stable ids
+     */
+    private static boolean hasStableIds(AdapterDelegate<?>[] delegates) {
+        if (delegates.length == 0) return false;
+        for (AdapterDelegate<?> delegate : delegates) {
+            final boolean hasStableIds = delegate instanceof BaseListBindingAdapterDelegate
+                    ? ((BaseListBindingAdapterDelegate) delegate).hasStableIds()
+                    : delegate instanceof IdHolder;
+            if (!hasStableIds) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get item id in any data source, not only in the current one.
+     * Does not use cached view types, so can be called from background thread.
+     *
+     * @param items    the data source
+     * @param position position of item in the data source
+     * @return the item id or {@link RecyclerView#NO_ID}
+     */
+    protected long getItemId(T items, int position) {
         final int viewType = delegatesManager.getItemViewType(items, position);
         final AdapterDelegate<T> delegate = delegatesManager.getDelegateForViewType(viewType);
         //noinspection unchecked
@@ -16,12 +16,22 @@
 
 package com.drextended.rvdatabinding.adapter;
 
+import android.databinding.ObservableList;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
 
+import com.drextended.rvdatabinding.Tracing;
 import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
 import com.hannesdorfmann.adapterdelegates2.AdapterDelegatesManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * RecyclerView Adapter for using with data binding. Uses List of items as dataset.
@@ -32,6 +42,30 @@ import java.util.List;
 
 public class BindableAdapter<T extends List> extends BaseBindableAdapter<T> {
 
+    /**
+     * Default minimal list size for using keyed diff, see {@link #setKeyedDiffThreshold(int)}
+     */
+    public static final int DEFAULT_KEYED_DIFF_THRESHOLD = 1000;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static Executor sDefaultDiffExecutor;
+
+    private Executor mDiffExecutor;
+    private DiffItemCallback<?> mDiffItemCallback;
+    private int mKeyedDiffThreshold = DEFAULT_KEYED_DIFF_THRESHOLD;
+
+    /**
+     * Generation of the data set. Incremented on each change of the data set,
+     * so diff results calculated for previous generations are dropped.
+     */
+    private int mGeneration;
+
+    private boolean mObserveListChanges;
+    private int mAttachedRecyclerViewCount;
+    private ObservableList mObservedList;
+    private ListChangedCallback mListChangedCallback;
+    private boolean mListChangesSuppressed;
+
     public BindableAdapter() {
     }
 
@@ -55,4 +89,263 @@ public class BindableAdapter<T extends List> extends BaseBindableAdapter<T> {
     public int getItemCount() {
         return items != null ? items.size() : 0;
     }
+
+    @Nullable
+    @Override
+    protected Object getItem(int position) {
+        return items != null ? items.get(position) : null;
+    }
+
+    /**
+     * Set items without notifying the adapter. Pending diffs started by {@link #submitList(List)} are dropped.
+     *
+     * @param items the new items
+     */
+    @Override
+    public void setItems(T items) {
+        mGeneration++;
+        super.setItems(items);
+        updateListSubscription();
+    }
+
+    /**
+     * Set new list of items. The difference with the current list is calculated on background thread
+     * and then dispatched to the adapter on main thread as minimal set of item range notifications.
+     * If another list is submitted or set before the calculation finishes, the result is dropped.
+     * Large lists are compared by keyed diff, see {@link #setKeyedDiffThreshold(int)}.
+     * The submitted list must not be modified after submitting.
+     * Must be called on main thread.
+     *
+     * @param newItems the new list of items
+     */
+    public void submitList(@Nullable final T newItems) {
+        final T currentItems = items;
+        if (newItems == currentItems) return;
+        final int generation = ++mGeneration;
+        final int oldSize = currentItems != null ? currentItems.size() : 0;
+        final int newSize = newItems != null ? newItems.size() : 0;
+        if (oldSize == 0 || newSize == 0) {
+            items = newItems;
+            updateListSubscription();
+            if (oldSize > 0) notifyItemRangeRemoved(0, oldSize);
+            if (newSize > 0) notifyItemRangeInserted(0, newSize);
+            return;
+        }
+        // the current list may still be modified on main thread while the diff is calculated
+        final T oldItems = copyItems(currentItems);
+        final DiffItemCallback<?> itemCallback = mDiffItemCallback;
+        final boolean keyed = Math.max(oldSize, newSize) >= mKeyedDiffThreshold;
+        getDiffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                long[] oldIds = null;
+                long[] newIds = null;
+                KeyedDiff keyedDiff = null;
+                if (keyed || itemCallback == null) {
+                    oldIds = getItemIds(oldItems);
+                    newIds = getItemIds(newItems);
+                }
+                if (keyed) {
+                    keyedDiff = KeyedDiff.calculate(oldItems, newItems, oldIds, newIds, itemCallback);
+                }
+                final DiffUtil.DiffResult diffResult;
+                if (keyedDiff != null) {
+                    diffResult = null;
+                } else {
+                    diffResult = DiffUtil.calculateDiff(itemCallback != null
+                            ? new ListDiffCallback(oldItems, newItems, itemCallback)
+                            : new ListDiffCallback(oldItems, newItems, oldIds, newIds));
+                }
+                final KeyedDiff finalKeyedDiff = keyedDiff;
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) return;
+                        items = newItems;
+                        updateListSubscription();
+                        final AdapterUpdateCallback callback = new AdapterUpdateCallback(BindableAdapter.this);
+                        final boolean trace = Tracing.isEnabled();
+                        if (trace) Tracing.beginSection(Tracing.SECTION_DIFF_DISPATCH);
+                        try {
+                            if (finalKeyedDiff != null) {
+                                finalKeyedDiff.dispatchUpdatesTo(callback);
+                            } else {
+                                diffResult.dispatchUpdatesTo(callback);
+                            }
+                        } finally {
+                            if (trace) Tracing.endSection();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Set callback for comparing items in {@link #submitList(List)}.
+     * If not set, items are compared by ids provided by delegates implementing
+     * {@link com.drextended.rvdatabinding.delegate.IdHolder} and contents by {@link Object#equals(Object)}.
+     *
+     * @param diffItemCallback the callback or null to use the default one
+     */
+    public void setDiffItemCallback(@Nullable DiffItemCallback<?> diffItemCallback) {
+        mDiffItemCallback = diffItemCallback;
+    }
+
+    /**
+     * Set minimal list size for using keyed diff in {@link #submitList(List)}.
+     * Keyed diff matches items by ids in linear time instead of O(N*D) of {@link DiffUtil},
+     * so it is much cheaper for large lists with many changes. It is used only if all items
+     * in both lists have unique ids, otherwise {@link DiffUtil} is used.
+     * Default value is {@link #DEFAULT_KEYED_DIFF_THRESHOLD}.
+     *
+     * @param keyedDiffThreshold the minimal size of the old or new list,
+     *                           {@link Integer#MAX_VALUE} to always use {@link DiffUtil}
+     */
+    public void setKeyedDiffThreshold(int keyedDiffThreshold) {
+        mKeyedDiffThreshold = keyedDiffThreshold;
+    }
+
+    /**
+     * Set executor for calculating the difference in {@link #submitList(List)}.
+     * If not set, the single thread executor shared by all adapters is used.
+     *
+     * @param diffExecutor the executor or null to use the default one
+     */
+    public void setDiffExecutor(@Nullable Executor diffExecutor) {
+        mDiffExecutor = diffExecutor;
+    }
+
+    /**
+     * Enables observing changes of items if they are {@link ObservableList}.
+     * While the adapter is attached to RecyclerView, all list changes are translated
+     * to matching item range notifications, so there is no need to notify the adapter manually.
+     * The list must be modified on main thread.
+     *
+     * @param enabled true to observe changes of the {@link ObservableList} set as items
+     */
+    public void setObserveListChanges(boolean enabled) {
+        mObserveListChanges = enabled;
+        updateListSubscription();
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mAttachedRecyclerViewCount++;
+        updateListSubscription();
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mAttachedRecyclerViewCount--;
+        updateListSubscription();
+    }
+
+    private void updateListSubscription() {
+        final ObservableList list = mObserveListChanges && mAttachedRecyclerViewCount > 0
+                && items instanceof ObservableList ? (ObservableList) items : null;
+        if (list == mObservedList) return;
+        if (mListChangedCallback == null) mListChangedCallback = new ListChangedCallback();
+        //noinspection unchecked
+        if (mObservedList != null) mObservedList.removeOnListChangedCallback(mListChangedCallback);
+        mObservedList = list;
+        if (list != null) {
+            //noinspection unchecked
+            list.addOnListChangedCallback(mListChangedCallback);
+            // changes made while list was not observed could not be tracked
+            invalidateItemCaches();
+        }
+    }
+
+    /**
+     * Ignore changes of observed list while items are changed by a caller which notifies the adapter itself,
+     * like {@link FrameBatchingUpdater}
+     *
+     * @param suppressed true to ignore changes
+     */
+    void setListChangesSuppressed(boolean suppressed) {
+        mListChangesSuppressed = suppressed;
+    }
+
+    /**
+     * Drop results of diffs started by {@link #submitList(List)}, as items are changed directly
+     */
+    void cancelPendingDiffs() {
+        mGeneration++;
+    }
+
+    /**
+     * Copy the current items for calculating the difference on background thread in {@link #submitList(List)}.
+     * By default copies them to {@link ArrayList}, override it if delegates depend on the type of the list.
+     *
+     * @param items the current items
+     * @return the copy of the items, which is not modified afterwards
+     */
+    @SuppressWarnings("unchecked")
+    protected T copyItems(@NonNull T items) {
+        return (T) new ArrayList<>(items);
+    }
+
+    private Executor getDiffExecutor() {
+        if (mDiffExecutor != null) return mDiffExecutor;
+        synchronized (BindableAdapter.class) {
+            if (sDefaultDiffExecutor == null) sDefaultDiffExecutor = Executors.newSingleThreadExecutor();
+            return sDefaultDiffExecutor;
+        }
+    }
+
+    private long[] getItemIds(T items) {
+        final int size = items.size();
+        final long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = getItemId(items, i);
+        }
+        return ids;
+    }
+
+    /**
+     * Translates changes of observed list to item range notifications
+     */
+    private class ListChangedCallback extends ObservableList.OnListChangedCallback<ObservableList> {
+
+        @Override
+        public void onChanged(ObservableList sender) {
+            if (mListChangesSuppressed) return;
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList sender, int positionStart, int itemCount) {
+            if (mListChangesSuppressed) return;
+            notifyItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(ObservableList sender, int positionStart, int itemCount) {
+            if (mListChangesSuppressed) return;
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(ObservableList sender, int fromPosition, int toPosition, int itemCount) {
+            if (mListChangesSuppressed) return;
+            if (fromPosition > toPosition) {
+                for (int i = 0; i < itemCount; i++) {
+                    notifyItemMoved(fromPosition + i, toPosition + i);
+                }
+            } else {
+                for (int i = 0; i < itemCount; i++) {
+                    notifyItemMoved(fromPosition, toPosition + itemCount - 1);
+                }
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(ObservableList sender, int positionStart, int itemCount) {
+            if (mListChangesSuppressed) return;
+            notifyItemRangeRemoved(positionStart, itemCount);
+        }
+    }
 }
@@ -24,6 +24,8 @@ import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
+import java.util.Arrays;
+
 /**
  * Recycler View Holder to use with data mBinding
  *
@@ -36,6 +38,33 @@ public class BindingHolder<VB extends ViewDataBinding> extends RecyclerView.View
      */
     private VB mBinding;
 
+    /**
+     * Binder of deferred variables, set by adapter on binding
+     */
+    DeferredBinder mDeferredBinder;
+
+    /**
+     * True while the holder is in RecycledViewPool, tracked for {@link AdaptivePoolSizer}
+     */
+    boolean mPooled;
+
+    /**
+     * Deferred variables waiting for binding
+     */
+    private int[] mDeferredIds;
+    private Object[] mDeferredValues;
+    private int mDeferredCount;
+
+    /**
+     * Binds deferred variables when the holder stays attached long enough, created on first use
+     */
+    private Runnable mDeferredTimeout;
+
+    /**
+     * The item the binding was bound to by the last full binding
+     */
+    private Object mBoundItem;
+
     /**
      * Creates new View Holder from provided layout
      *
@@ -75,4 +104,106 @@ public class BindingHolder<VB extends ViewDataBinding> extends RecyclerView.View
         return mBinding;
     }
 
+    /**
+     * @return the item set by {@link #setBoundItem(Object)}
+     */
+    @Nullable
+    public Object getBoundItem() {
+        return mBoundItem;
+    }
+
+    /**
+     * Remember the item the binding is bound to, so partial rebinding can check
+     * that the binding still observes the same instance
+     *
+     * @param boundItem the bound item
+     */
+    public void setBoundItem(@Nullable Object boundItem) {
+        mBoundItem = boundItem;
+    }
+
+    /**
+     * Set variable which is expensive to bind, like image url. If the list is not scrolled,
+     * the variable is set immediately, otherwise it is set to null at once, so the view does not
+     * show the value of the previously bound item, and the value is set when scrolling stops or the holder
+     * stays attached long enough, see {@link BaseBindableAdapter#setDeferredBindingDelay(long)}.
+     * Deferred variables are dropped when the holder is recycled or fully rebound.
+     * Call it from {@link com.drextended.rvdatabinding.delegate.BaseBindingAdapterDelegate#onBindViewHolder(Object, int, BindingHolder)}.
+     *
+     * @param variableId the BR id of the variable
+     * @param value      the value of the variable
+     */
+    public void setDeferredVariable(int variableId, @Nullable Object value) {
+        setDeferredVariable(variableId, value, null);
+    }
+
+    /**
+     * Set variable which is expensive to bind, see {@link #setDeferredVariable(int, Object)}.
+     * While the value is deferred, the variable is set to the placeholder.
+     *
+     * @param variableId  the BR id of the variable
+     * @param value       the value of the variable
+     * @param placeholder the cheap value bound until the value is set, for example a thumbnail
+     */
+    public void setDeferredVariable(int variableId, @Nullable Object value, @Nullable Object placeholder) {
+        if (mDeferredBinder == null || mDeferredBinder.isIdle()) {
+            mBinding.setVariable(variableId, value);
+            return;
+        }
+        mBinding.setVariable(variableId, placeholder);
+        for (int i = 0; i < mDeferredCount; i++) {
+            if (mDeferredIds[i] == variableId) {
+                mDeferredValues[i] = value;
+                return;
+            }
+        }
+        if (mDeferredIds == null) {
+            mDeferredIds = new int[2];
+            mDeferredValues = new Object[2];
+        } else if (mDeferredCount == mDeferredIds.length) {
+            mDeferredIds = Arrays.copyOf(mDeferredIds, mDeferredCount * 2);
+            mDeferredValues = Arrays.copyOf(mDeferredValues, mDeferredCount * 2);
+        }
+        mDeferredIds[mDeferredCount] = variableId;
+        mDeferredValues[mDeferredCount] = value;
+        if (mDeferredCount++ == 0) mDeferredBinder.onDeferred(this);
+    }
+
+    /**
+     * @return true if some deferred variables are waiting for binding
+     */
+    public boolean hasDeferredVariables() {
+        return mDeferredCount > 0;
+    }
+
+    /**
+     * Set deferred variables and execute pending bindings
+     */
+    void bindDeferredVariables() {
+        if (mDeferredCount == 0) return;
+        for (int i = 0; i < mDeferredCount; i++) {
+            mBinding.setVariable(mDeferredIds[i], mDeferredValues[i]);
+        }
+        clearDeferredVariables();
+        mBinding.executePendingBindings();
+    }
+
+    void clearDeferredVariables() {
+        if (mDeferredCount == 0) return;
+        Arrays.fill(mDeferredValues, 0, mDeferredCount, null);
+        mDeferredCount = 0;
+    }
+
+    Runnable getDeferredTimeout() {
+        if (mDeferredTimeout == null) {
+            mDeferredTimeout = new Runnable() {
+                @Override
+                public void run() {
+                    if (mDeferredBinder != null) mDeferredBinder.bind(BindingHolder.this);
+                }
+            };
+        }
+        return mDeferredTimeout;
+    }
+
 }
@@ -0,0 +1,108 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.content.Context;
+import android.databinding.DataBindingUtil;
+import android.databinding.ViewDataBinding;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Inflates bindings on background thread and puts view holders created for them
+ * into RecycledViewPool. Layouts are inflated one by one, so the queue of
+ * {@link AsyncLayoutInflater} never blocks main thread.
+ */
+class BindingPreInflater implements AsyncLayoutInflater.OnInflateFinishedListener {
+
+    private final BaseBindableAdapter<?> mAdapter;
+    private final RecyclerView.RecycledViewPool mPool;
+    private final AsyncLayoutInflater mInflater;
+    private final ViewGroup mParent;
+    private final int[] mViewTypes;
+    private final int[] mLayouts;
+    private final int[] mCounts;
+    private int mIndex;
+
+    /**
+     * Creates pre-inflater. Must be called on main thread.
+     *
+     * @param context   the context
+     * @param adapter   the adapter to create view holders
+     * @param pool      the pool to put view holders to
+     * @param viewTypes the view types
+     * @param layouts   the layouts for view types
+     * @param counts    the count of view holders to create for view types
+     */
+    BindingPreInflater(Context context, BaseBindableAdapter<?> adapter, RecyclerView.RecycledViewPool pool,
+                       int[] viewTypes, int[] layouts, int[] counts) {
+        mAdapter = adapter;
+        mPool = pool;
+        mInflater = new AsyncLayoutInflater(context);
+        // parent is used only for generating layout params of item views
+        mParent = new RecyclerView(context);
+        mViewTypes = viewTypes;
+        mLayouts = layouts;
+        mCounts = counts;
+    }
+
+    void start() {
+        final AdaptivePoolSizer sizer = getPoolSizer();
+        for (int i = 0; i < mViewTypes.length; i++) {
+            int max = mCounts[i];
+            if (sizer != null) {
+                // do not lower max count already raised by the sizer or configured by user
+                if (max > sizer.getMaxRecycledViews(mViewTypes[i])) sizer.setBaseMaxRecycledViews(mViewTypes[i], max);
+                max = sizer.getMaxRecycledViews(mViewTypes[i]);
+            }
+            if (max > AdaptivePoolSizer.DEFAULT_MAX_SCRAP) mPool.setMaxRecycledViews(mViewTypes[i], max);
+        }
+        inflateNext();
+    }
+
+    /**
+     * @return the sizer of the adapter if it tunes the pool view holders are put to
+     */
+    private AdaptivePoolSizer getPoolSizer() {
+        final AdaptivePoolSizer sizer = mAdapter.getPoolSizer();
+        return sizer != null && sizer.getRecycledViewPool() == mPool ? sizer : null;
+    }
+
+    private void inflateNext() {
+        while (mIndex < mCounts.length && mCounts[mIndex] <= 0) mIndex++;
+        if (mIndex < mCounts.length) mInflater.inflate(mLayouts[mIndex], mParent, this);
+    }
+
+    @Override
+    public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+        final ViewDataBinding binding = DataBindingUtil.bind(view);
+        if (binding != null) {
+            final RecyclerView.ViewHolder holder = mAdapter.createViewHolder(mParent, mViewTypes[mIndex], binding);
+            mPool.putRecycledView(holder);
+            final AdaptivePoolSizer sizer = getPoolSizer();
+            if (sizer != null && holder instanceof BindingHolder) {
+                ((BindingHolder<?>) holder).mPooled = true;
+                sizer.onViewHolderPooled(mViewTypes[mIndex]);
+            }
+        }
+        mCounts[mIndex]--;
+        inflateNext();
+    }
+}
@@ -22,12 +22,22 @@ import android.support.v7.widget.RecyclerView;
 import android.view.View;
 
 /**
- * ItemDecoration for colored spacing (divider) between items in RecyclerView
+ * ItemDecoration for colored spacing (divider) between items in RecyclerView.
+ * All dividers have the same thickness, so they are drawn by one {@link Canvas#drawLines(float[], int, int, Paint)}
+ * call per frame; dividers outside of RecyclerView are skipped and the rest are clipped to its bounds.
  */
 public class ColorDividerItemDecoration extends DividerItemDecoration {
 
     private final Paint mPaint;
 
+    /**
+     * Reusable buffer of divider lines, 4 coordinates per line
+     */
+    private float[] mLines = new float[64];
+    private int mLinesSize;
+    private int mWidth;
+    private int mHeight;
+
     /**
      * Creates ItemDecoration for colored spacing (divider) between items in RecyclerView
      *
@@ -37,6 +47,7 @@ public class ColorDividerItemDecoration extends DividerItemDecoration {
      *                      Available values:
      *                      {@link DividerItemDecoration#SPACE_LEFT}, {@link DividerItemDecoration#SPACE_TOP},
      *                      {@link DividerItemDecoration#SPACE_RIGHT}, {@link DividerItemDecoration#SPACE_BOTTOM}.
+     *                      {@link DividerItemDecoration#SPACE_GRID} is not supported for drawing.
      * @param disableFirst  true for not drawing divider for first item.
      * @param disableLast   true for not drawing divider for last item.
      */
@@ -44,54 +55,76 @@ public class ColorDividerItemDecoration extends DividerItemDecoration {
         super(spacing, spacingConfig, disableFirst, disableLast);
         mPaint = new Paint();
         mPaint.setColor(color);
-        mPaint.setStyle(Paint.Style.FILL);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeCap(Paint.Cap.BUTT);
     }
 
     @Override
     public void onDrawOver(Canvas c, RecyclerView parent, RecyclerView.State state) {
         int childCount = parent.getChildCount();
+        if (childCount == 0 || mSpacing <= 0) return;
+        final RecyclerView.Adapter adapter = parent.getAdapter();
+        final int itemCount = adapter != null ? adapter.getItemCount() : 0;
+        mWidth = parent.getWidth();
+        mHeight = parent.getHeight();
+        mLinesSize = 0;
         for (int i = 0; i < childCount; i++) {
             View child = parent.getChildAt(i);
-            drawDivider(c, child, parent);
+            addDividers(child, parent.getChildAdapterPosition(child), itemCount);
+        }
+        if (mLinesSize > 0) {
+            mPaint.setStrokeWidth(mSpacing);
+            c.drawLines(mLines, 0, mLinesSize, mPaint);
         }
     }
 
-    private void drawDivider(Canvas c, View child, RecyclerView parent) {
+    private void addDividers(View child, int position, int itemCount) {
         RecyclerView.LayoutParams params = (RecyclerView.LayoutParams) child.getLayoutParams();
-        int left, top, right, bottom;
+        final int top = child.getTop() - params.topMargin;
+        final int bottom = child.getBottom() + params.bottomMargin;
+        final int left = child.getLeft() - params.leftMargin;
+        final int right = child.getRight() + params.rightMargin;
+        final float half = mSpacing / 2f;
 
-        if (mDrawLeft && needDrawIfFirst(child, parent, SPACE_TOP)) {
-            top = child.getTop() - params.topMargin;
-            bottom = child.getBottom() + params.bottomMargin;
-            right = child.getLeft() - params.leftMargin;
-            left = right - mSpacing;
-            drawDivider(c, left, top, right, bottom);
+        // horizontal dividers cover the corners, so vertical ones have height of child only
+        if (mDrawLeft && needDrawIfFirst(position, SPACE_LEFT)) {
+            addVerticalLine(left - half, top, bottom);
         }
-        if (mDrawTop && needDrawIfFirst(child, parent, SPACE_TOP)) {
-            bottom = child.getTop() - params.topMargin;
-            top = bottom - mSpacing;
-            left = child.getLeft() - params.leftMargin - (mDrawLeft ? mSpacing : 0);
-            right = child.getRight() + params.rightMargin + (mDrawRight ? mSpacing : 0);
-            drawDivider(c, left, top, right, bottom);
+        if (mDrawTop && needDrawIfFirst(position, SPACE_TOP)) {
+            addHorizontalLine(top - half, left - (mDrawLeft ? mSpacing : 0), right + (mDrawRight ? mSpacing : 0));
         }
-        if (mDrawRight && needDrawIfLast(child, parent, SPACE_BOTTOM)) {
-            top = child.getTop() - params.topMargin;
-            bottom = child.getBottom() + params.bottomMargin;
-            left = child.getRight() + params.rightMargin;
-            right = left + mSpacing;
-            drawDivider(c, left, top, right, bottom);
+        if (mDrawRight && needDrawIfLast(position, itemCount, SPACE_RIGHT)) {
+            addVerticalLine(right + half, top, bottom);
         }
-        if (mDrawBottom && needDrawIfLast(child, parent, SPACE_BOTTOM)) {
-            top = child.getBottom() + params.bottomMargin;
-            bottom = top + mSpacing;
-            left = child.getLeft() - params.leftMargin - (mDrawLeft ? mSpacing : 0);
-            right = child.getRight() + params.rightMargin + (mDrawRight ? mSpacing : 0);
-            drawDivider(c, left, top, right, bottom);
+        if (mDrawBottom && needDrawIfLast(position, itemCount, SPACE_BOTTOM)) {
+            addHorizontalLine(bottom + half, left - (mDrawLeft ? mSpacing : 0), right + (mDrawRight ? mSpacing : 0));
         }
+    }
+
+    private void addVerticalLine(float x, float top, float bottom) {
+        final float half = mSpacing / 2f;
+        if (x + half <= 0 || x - half >= mWidth) return;
+        addLine(x, Math.max(top, 0), x, Math.min(bottom, mHeight));
+    }
 
+    private void addHorizontalLine(float y, float left, float right) {
+        final float half = mSpacing / 2f;
+        if (y + half <= 0 || y - half >= mHeight) return;
+        addLine(Math.max(left, 0), y, Math.min(right, mWidth), y);
     }
 
-    private void drawDivider(Canvas c, int left, int top, int right, int bottom) {
-        c.drawRect(left, top, right, bottom, mPaint);
+    private void addLine(float startX, float startY, float stopX, float stopY) {
+        if (startX > stopX || startY > stopY || (startX == stopX && startY == stopY)) return;
+        final int size = mLinesSize;
+        if (size + 4 > mLines.length) {
+            final float[] lines = new float[mLines.length * 2];
+            System.arraycopy(mLines, 0, lines, 0, size);
+            mLines = lines;
+        }
+        mLines[size] = startX;
+        mLines[size + 1] = startY;
+        mLines[size + 2] = stopX;
+        mLines[size + 3] = stopY;
+        mLinesSize = size + 4;
     }
 }
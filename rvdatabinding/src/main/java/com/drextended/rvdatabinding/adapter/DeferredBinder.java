@@ -0,0 +1,128 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+
+/**
+ * Binds deferred variables of view holders (see {@link BindingHolder#setDeferredVariable(int, Object)})
+ * when all RecyclerViews of the adapter stop scrolling or when view holder stays attached
+ * for the delay. Used on main thread only.
+ */
+class DeferredBinder extends RecyclerView.OnScrollListener {
+
+    /**
+     * Shared by all binders, so a timeout posted by one binder can be removed by another one
+     * if the holder was moved between adapters through shared RecycledViewPool
+     */
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * View holders with deferred variables
+     */
+    private final ArrayList<BindingHolder<?>> mPending = new ArrayList<>();
+
+    /**
+     * RecyclerViews which are not idle
+     */
+    private final ArrayList<RecyclerView> mScrolling = new ArrayList<>(1);
+
+    private long mDelayMillis;
+
+    DeferredBinder(long delayMillis) {
+        mDelayMillis = delayMillis;
+    }
+
+    void setDelay(long delayMillis) {
+        mDelayMillis = delayMillis;
+    }
+
+    boolean isIdle() {
+        return mScrolling.isEmpty();
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE) {
+            if (!mScrolling.contains(recyclerView)) mScrolling.add(recyclerView);
+        } else if (mScrolling.remove(recyclerView) && mScrolling.isEmpty()) {
+            bindAll();
+        }
+    }
+
+    void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(this);
+    }
+
+    void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(this);
+        if (mScrolling.remove(recyclerView) && mScrolling.isEmpty()) bindAll();
+    }
+
+    /**
+     * Called by holder when its first deferred variable is set
+     */
+    void onDeferred(BindingHolder<?> holder) {
+        mPending.add(holder);
+        if (ViewCompat.isAttachedToWindow(holder.itemView)) schedule(holder);
+    }
+
+    void onViewAttachedToWindow(BindingHolder<?> holder) {
+        if (holder.hasDeferredVariables()) schedule(holder);
+    }
+
+    void onViewDetachedFromWindow(BindingHolder<?> holder) {
+        if (holder.hasDeferredVariables()) sHandler.removeCallbacks(holder.getDeferredTimeout());
+    }
+
+    /**
+     * Drop deferred variables of the holder, called when the holder is recycled or fully rebound
+     */
+    void cancel(BindingHolder<?> holder) {
+        if (!holder.hasDeferredVariables()) return;
+        sHandler.removeCallbacks(holder.getDeferredTimeout());
+        mPending.remove(holder);
+        holder.clearDeferredVariables();
+    }
+
+    void bind(BindingHolder<?> holder) {
+        if (!holder.hasDeferredVariables()) return;
+        sHandler.removeCallbacks(holder.getDeferredTimeout());
+        mPending.remove(holder);
+        holder.bindDeferredVariables();
+    }
+
+    private void schedule(BindingHolder<?> holder) {
+        final Runnable timeout = holder.getDeferredTimeout();
+        sHandler.removeCallbacks(timeout);
+        sHandler.postDelayed(timeout, mDelayMillis);
+    }
+
+    private void bindAll() {
+        for (int i = 0, size = mPending.size(); i < size; i++) {
+            final BindingHolder<?> holder = mPending.get(i);
+            sHandler.removeCallbacks(holder.getDeferredTimeout());
+            holder.bindDeferredVariables();
+        }
+        mPending.clear();
+    }
+}
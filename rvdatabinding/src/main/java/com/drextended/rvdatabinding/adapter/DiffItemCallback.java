@@ -0,0 +1,47 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Callback to calculate the difference between two lists of items in
+ * {@link BindableAdapter#submitList(java.util.List)}.
+ * Methods are called on background thread.
+ *
+ * @param <I> The type of items
+ */
+public interface DiffItemCallback<I> {
+
+    /**
+     * Check whether two items represent the same object
+     *
+     * @param oldItem the item in the old list
+     * @param newItem the item in the new list
+     * @return true if the two items represent the same object
+     */
+    boolean areItemsTheSame(@NonNull I oldItem, @NonNull I newItem);
+
+    /**
+     * Check whether two items have the same data. Called only if
+     * {@link #areItemsTheSame(Object, Object)} returns true for them.
+     *
+     * @param oldItem the item in the old list
+     * @param newItem the item in the new list
+     * @return true if the contents of the items are the same, so item should not be rebound
+     */
+    boolean areContentsTheSame(@NonNull I oldItem, @NonNull I newItem);
+}
@@ -17,11 +17,15 @@
 package com.drextended.rvdatabinding.adapter;
 
 import android.graphics.Rect;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.view.View;
 
 /**
- * ItemDecoration for spacing (divider) between items in RecyclerView
+ * ItemDecoration for spacing (divider) between items in RecyclerView.
+ * With {@link #SPACE_GRID} spacing is set between cells of {@link GridLayoutManager},
+ * so all cells have the same size, and other flags set spacing on outer edges of the grid.
  */
 public class DividerItemDecoration extends RecyclerView.ItemDecoration {
 
@@ -29,18 +33,21 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
     public static final int SPACE_RIGHT = 2;
     public static final int SPACE_TOP = 4;
     public static final int SPACE_BOTTOM = 8;
-//    public static final int SPACE_GRID = 16;
+    public static final int SPACE_GRID = 16;
 
     protected final int mSpacingConfig;
     protected final boolean mDrawLeft;
     protected final boolean mDrawTop;
     protected final boolean mDrawRight;
     protected final boolean mDrawBottom;
+    protected final boolean mGrid;
     private final boolean mDisableFirst;
     private final boolean mDisableLast;
 
     protected int mSpacing;
 
+    private GridLayoutManager.SpanSizeLookup mCachedSpanSizeLookup;
+
     /**
      * Creates ItemDecoration for colored spacing (divider) between items in RecyclerView
      * Make spacing on top of each item
@@ -71,9 +78,10 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
      * @param spacingConfig the spacing config. Can be set as bit mask like {@code SPACE_LEFT|SPACE_TOP}.
      *                      Available values:
      *                      {@link DividerItemDecoration#SPACE_LEFT}, {@link DividerItemDecoration#SPACE_TOP},
-     *                      {@link DividerItemDecoration#SPACE_RIGHT}, {@link DividerItemDecoration#SPACE_BOTTOM}.
-     * @param disableFirst  true for not drawing divider for first item.
-     * @param disableLast   true for not drawing divider for last item.
+     *                      {@link DividerItemDecoration#SPACE_RIGHT}, {@link DividerItemDecoration#SPACE_BOTTOM},
+     *                      {@link DividerItemDecoration#SPACE_GRID}.
+     * @param disableFirst  true for not drawing divider for first item. Ignored for {@link #SPACE_GRID}.
+     * @param disableLast   true for not drawing divider for last item. Ignored for {@link #SPACE_GRID}.
      */
     public DividerItemDecoration(final int spacing, int spacingConfig, boolean disableFirst, boolean disableLast) {
         mSpacing = spacing;
@@ -83,6 +91,7 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
         mDrawTop = check(SPACE_TOP);
         mDrawRight = check(SPACE_RIGHT);
         mDrawBottom = check(SPACE_BOTTOM);
+        mGrid = check(SPACE_GRID);
 
         mDisableFirst = disableFirst;
         mDisableLast = disableLast;
@@ -90,23 +99,131 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
 
     @Override
     public void getItemOffsets(Rect outRect, View child, RecyclerView parent, RecyclerView.State state) {
+        if (mGrid) {
+            getGridItemOffsets(outRect, child, parent, state);
+            return;
+        }
         if (mDrawLeft && needDrawIfFirst(child, parent, SPACE_LEFT)) outRect.left = mSpacing;
         if (mDrawTop && needDrawIfFirst(child, parent, SPACE_TOP)) outRect.top = mSpacing;
         if (mDrawRight && needDrawIfLast(child, parent, SPACE_RIGHT)) outRect.right = mSpacing;
         if (mDrawBottom && needDrawIfLast(child, parent, SPACE_BOTTOM)) outRect.bottom = mSpacing;
     }
 
+    /**
+     * Set offsets of grid cell. Span index and size are taken from layout params of the child,
+     * assigned by {@link GridLayoutManager} before measuring, or from span size lookup
+     * with enabled span index cache, so the cost does not depend on position.
+     * Other layout managers are handled as grid with one span.
+     */
+    private void getGridItemOffsets(Rect outRect, View child, RecyclerView parent, RecyclerView.State state) {
+        final int position = parent.getChildAdapterPosition(child);
+        if (position == RecyclerView.NO_POSITION) return;
+        final int itemCount = state.getItemCount();
+        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+
+        int spanCount = 1;
+        int spanIndex = 0;
+        int spanSize = 1;
+        GridLayoutManager.SpanSizeLookup lookup = null;
+        boolean vertical = !(layoutManager instanceof LinearLayoutManager)
+                || ((LinearLayoutManager) layoutManager).getOrientation() == LinearLayoutManager.VERTICAL;
+        if (layoutManager instanceof GridLayoutManager) {
+            final GridLayoutManager grid = (GridLayoutManager) layoutManager;
+            spanCount = grid.getSpanCount();
+            lookup = grid.getSpanSizeLookup();
+            if (lookup != mCachedSpanSizeLookup) {
+                // the cache is invalidated by GridLayoutManager on adapter changes
+                lookup.setSpanIndexCacheEnabled(true);
+                mCachedSpanSizeLookup = lookup;
+            }
+            final GridLayoutManager.LayoutParams params = (GridLayoutManager.LayoutParams) child.getLayoutParams();
+            spanIndex = params.getSpanIndex();
+            spanSize = params.getSpanSize();
+            if (spanIndex == GridLayoutManager.LayoutParams.INVALID_SPAN_ID) {
+                spanIndex = lookup.getSpanIndex(position, spanCount);
+                spanSize = lookup.getSpanSize(position);
+            }
+        }
+
+        final boolean firstRow = isInFirstRow(position, spanIndex, lookup);
+        final boolean lastRow = isInLastRow(position, spanIndex, itemCount, spanCount, lookup);
+        final int startEdge = (vertical ? mDrawLeft : mDrawTop) ? mSpacing : 0;
+        final int endEdge = (vertical ? mDrawRight : mDrawBottom) ? mSpacing : 0;
+        final int cellStart = getCellStartOffset(spanIndex, spanCount, startEdge, endEdge);
+        final int cellEnd = mSpacing - getCellStartOffset(spanIndex + spanSize, spanCount, startEdge, endEdge);
+        final int rowStart = firstRow ? ((vertical ? mDrawTop : mDrawLeft) ? mSpacing : 0) : mSpacing;
+        final int rowEnd = lastRow && (vertical ? mDrawBottom : mDrawRight) ? mSpacing : 0;
+        if (vertical) {
+            outRect.set(cellStart, rowStart, cellEnd, rowEnd);
+        } else {
+            outRect.set(rowStart, cellStart, rowEnd, cellEnd);
+        }
+    }
+
+    /**
+     * Offset at the start of cell beginning at the span boundary, such that all cells have equal size:
+     * each cell gets {@code (startEdge + endEdge + (spanCount - 1) * spacing) / spanCount} in total
+     */
+    private int getCellStartOffset(int boundary, int spanCount, int startEdge, int endEdge) {
+        final long total = startEdge + endEdge + (long) (spanCount - 1) * mSpacing;
+        return (int) (startEdge + ((long) boundary * mSpacing * spanCount - boundary * total) / spanCount);
+    }
+
+    /**
+     * Items of the first row have span index equal to the sum of span sizes before them,
+     * so only items with position not greater than span index can be there
+     */
+    private boolean isInFirstRow(int position, int spanIndex, GridLayoutManager.SpanSizeLookup lookup) {
+        if (lookup == null) return position == 0;
+        if (position > spanIndex) return false;
+        int spans = 0;
+        for (int i = 0; i < position; i++) spans += lookup.getSpanSize(i);
+        return spans == spanIndex;
+    }
+
+    /**
+     * The item is in the last row if all the items after it fit in the rest of the row,
+     * so at most span count items are checked
+     */
+    private boolean isInLastRow(int position, int spanIndex, int itemCount, int spanCount,
+                                GridLayoutManager.SpanSizeLookup lookup) {
+        if (lookup == null) return position == itemCount - 1;
+        if (itemCount - position > spanCount - spanIndex) return false;
+        int spans = spanIndex;
+        for (int i = position; i < itemCount; i++) {
+            spans += lookup.getSpanSize(i);
+            if (spans > spanCount) return false;
+        }
+        return true;
+    }
+
     protected boolean check(int value) {
         return (mSpacingConfig & value) == value;
     }
 
     protected boolean isFirstItem(View child, RecyclerView parent, final int spacingConfig) {
-        return parent.getChildAdapterPosition(child) == 0;
+        return isFirstItem(parent.getChildAdapterPosition(child), spacingConfig);
     }
 
     protected boolean isLastItem(View child, RecyclerView parent) {
         final RecyclerView.Adapter adapter = parent.getAdapter();
-        return adapter != null && parent.getChildAdapterPosition(child) == adapter.getItemCount() - 1;
+        return adapter != null && isLastItem(parent.getChildAdapterPosition(child), adapter.getItemCount());
+    }
+
+    /**
+     * Check the item by adapter position. Both offsets and drawing use it,
+     * so override it instead of {@link #isFirstItem(View, RecyclerView, int)}.
+     */
+    protected boolean isFirstItem(int position, final int spacingConfig) {
+        return position == 0;
+    }
+
+    /**
+     * Check the item by adapter position and item count. Both offsets and drawing use it,
+     * so override it instead of {@link #isLastItem(View, RecyclerView)}.
+     */
+    protected boolean isLastItem(int position, int itemCount) {
+        return position == itemCount - 1;
     }
 
     protected boolean needDrawIfFirst(View child, RecyclerView parent, final int spacingConfig) {
@@ -117,4 +234,19 @@ public class DividerItemDecoration extends RecyclerView.ItemDecoration {
         return !(mDisableLast && isLastItem(child, parent));
     }
 
+    /**
+     * Same as {@link #needDrawIfFirst(View, RecyclerView, int)} for already known adapter position,
+     * used when drawing to not look it up for each side of child
+     */
+    protected boolean needDrawIfFirst(int position, final int spacingConfig) {
+        return !(mDisableFirst && isFirstItem(position, spacingConfig));
+    }
+
+    /**
+     * Same as {@link #needDrawIfLast(View, RecyclerView, int)} for already known adapter position and item count
+     */
+    protected boolean needDrawIfLast(int position, int itemCount, final int spacingConfig) {
+        return !(mDisableLast && isLastItem(position, itemCount));
+    }
+
 }
@@ -0,0 +1,277 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.ListUpdateCallback;
+import android.view.Choreographer;
+
+import com.drextended.rvdatabinding.Tracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batches bursty updates of {@link BindableAdapter} items. Changes are collected during a frame
+ * and applied to the items with the next frame, so adjacent or overlapping ranges of the same type
+ * are merged and the adapter is notified once per frame no matter how many updates arrive.
+ * Methods for changing items can be called from any thread. The collected changes are not visible
+ * in {@link BindableAdapter#getItems()} until they are applied.
+ * If the adapter observes its items (see {@link BindableAdapter#setObserveListChanges(boolean)}),
+ * it ignores notifications of the list while changes are applied, and gets merged ones from the updater.
+ * Do not mix it with {@link BindableAdapter#submitList(List)}: diffs which are not dispatched yet
+ * are dropped when changes are applied, as they were calculated for the list before the changes.
+ * Sample:
+ * <pre>
+ * {@code
+ *      FrameBatchingUpdater updater = new FrameBatchingUpdater(adapter);
+ *      // on each incoming update
+ *      updater.set(position, newItem);
+ * }
+ * </pre>
+ */
+public class FrameBatchingUpdater {
+
+    private static final int TYPE_INSERT = 1;
+    private static final int TYPE_REMOVE = 2;
+    private static final int TYPE_CHANGE = 3;
+    private static final int TYPE_MOVE = 4;
+
+    private final BindableAdapter<? extends List> mAdapter;
+    private final ListUpdateCallback mAdapterCallback;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+    private Object mFrameCallback;
+
+    private final Object mLock = new Object();
+    private ArrayList<Operation> mPending = new ArrayList<>();
+    private ArrayList<Operation> mApplying = new ArrayList<>();
+    private boolean mScheduled;
+
+    /**
+     * Creates updater for the adapter
+     *
+     * @param adapter the adapter, its items must be set and mutable
+     */
+    public FrameBatchingUpdater(@NonNull BindableAdapter<? extends List> adapter) {
+        mAdapter = adapter;
+        mAdapterCallback = new AdapterUpdateCallback(adapter);
+    }
+
+    /**
+     * Insert item at the position
+     *
+     * @param position the position
+     * @param item     the item to insert
+     */
+    public void add(int position, Object item) {
+        enqueue(new Operation(TYPE_INSERT, position, 1, item, null));
+    }
+
+    /**
+     * Insert items at the position
+     *
+     * @param position the position
+     * @param items    the items to insert
+     */
+    public void addAll(int position, @NonNull Collection<?> items) {
+        if (items.isEmpty()) return;
+        if (items.size() == 1) {
+            add(position, items.iterator().next());
+            return;
+        }
+        enqueue(new Operation(TYPE_INSERT, position, items.size(), new ArrayList<>(items), null));
+    }
+
+    /**
+     * Remove items
+     *
+     * @param position the position of first item to remove
+     * @param count    the count of items to remove
+     */
+    public void remove(int position, int count) {
+        if (count <= 0) return;
+        enqueue(new Operation(TYPE_REMOVE, position, count, null, null));
+    }
+
+    /**
+     * Replace item at the position
+     *
+     * @param position the position
+     * @param item     the new item
+     */
+    public void set(int position, Object item) {
+        set(position, item, null);
+    }
+
+    /**
+     * Replace item at the position
+     *
+     * @param position the position
+     * @param item     the new item
+     * @param payload  the payload for partial rebinding,
+     *                 see {@link com.drextended.rvdatabinding.delegate.BindingPayload}
+     */
+    public void set(int position, Object item, @Nullable Object payload) {
+        enqueue(new Operation(TYPE_CHANGE, position, 1, item, payload));
+    }
+
+    /**
+     * Move item
+     *
+     * @param fromPosition the current position of item
+     * @param toPosition   the new position of item
+     */
+    public void move(int fromPosition, int toPosition) {
+        if (fromPosition == toPosition) return;
+        enqueue(new Operation(TYPE_MOVE, fromPosition, toPosition, null, null));
+    }
+
+    /**
+     * Drop all changes which are not applied yet
+     */
+    public void cancel() {
+        synchronized (mLock) {
+            mPending.clear();
+        }
+    }
+
+    /**
+     * Apply all collected changes immediately. Must be called on main thread.
+     */
+    public void flush() {
+        final ArrayList<Operation> operations;
+        synchronized (mLock) {
+            mScheduled = false;
+            if (mPending.isEmpty()) return;
+            operations = mPending;
+            mPending = mApplying;
+            mApplying = operations;
+        }
+        final boolean trace = Tracing.isEnabled();
+        if (trace) Tracing.beginSection(Tracing.SECTION_BATCH_FLUSH);
+        try {
+            mAdapter.cancelPendingDiffs();
+            //noinspection unchecked
+            final List<Object> items = mAdapter.getItems();
+            final BatchingListUpdateCallback callback = new BatchingListUpdateCallback(mAdapterCallback);
+            // notifications of observed list are replaced by merged ones
+            mAdapter.setListChangesSuppressed(true);
+            for (int i = 0, size = operations.size(); i < size; i++) {
+                final Operation op = operations.get(i);
+                switch (op.type) {
+                    case TYPE_INSERT:
+                        if (op.count == 1) {
+                            items.add(op.position, op.item);
+                        } else {
+                            //noinspection unchecked
+                            items.addAll(op.position, (Collection<Object>) op.item);
+                        }
+                        callback.onInserted(op.position, op.count);
+                        break;
+                    case TYPE_REMOVE:
+                        items.subList(op.position, op.position + op.count).clear();
+                        callback.onRemoved(op.position, op.count);
+                        break;
+                    case TYPE_CHANGE:
+                        items.set(op.position, op.item);
+                        callback.onChanged(op.position, 1, op.payload);
+                        break;
+                    case TYPE_MOVE:
+                        items.add(op.count, items.remove(op.position));
+                        callback.onMoved(op.position, op.count);
+                        break;
+                }
+            }
+            callback.dispatchLastEvent();
+        } finally {
+            mAdapter.setListChangesSuppressed(false);
+            if (trace) Tracing.endSection();
+        }
+        operations.clear();
+    }
+
+    private void enqueue(Operation operation) {
+        synchronized (mLock) {
+            mPending.add(operation);
+            if (mScheduled) return;
+            mScheduled = true;
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            mMainHandler.post(mFlushRunnable);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            // Choreographer is bound to the thread, so switch to main thread first
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    postFrameCallback();
+                }
+            });
+            return;
+        }
+        if (mFrameCallback == null) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    flush();
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    /**
+     * Collected change of items. For move the target position is kept in count.
+     */
+    private static class Operation {
+        final int type;
+        final int position;
+        final int count;
+        final Object item;
+        final Object payload;
+
+        Operation(int type, int position, int count, Object item, Object payload) {
+            this.type = type;
+            this.position = position;
+            this.count = count;
+            this.item = item;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Index of item positions by item ids. Built on the first lookup, then range notifications are applied
+ * incrementally: ids are read from the adapter again only for changed and inserted items, on the next lookup.
+ * Changes, appends and removals at the end update the index in time proportional to the range.
+ * Insertions, removals and moves in the middle shift positions of the following items,
+ * which costs O(N) array and hash operations on the next lookup, but no calls to the adapter.
+ */
+class ItemIdIndex extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Marks positions whose ids must be read from the adapter
+     */
+    private static final long UNKNOWN = LongIntMap.EMPTY_KEY;
+
+    private final LongIntMap mPositions = new LongIntMap();
+
+    /**
+     * Ids by position, valid if mValid
+     */
+    private long[] mIds = new long[16];
+    private int mCount;
+    private boolean mValid;
+
+    /**
+     * True if mPositions matches known ids, otherwise it is rebuilt from mIds on the next lookup
+     */
+    private boolean mMapValid;
+
+    /**
+     * True if some id was met at several positions, so removing it from mPositions may lose other positions
+     */
+    private boolean mDuplicates;
+
+    /**
+     * Range of positions which may be {@link #UNKNOWN}, empty if start >= end
+     */
+    private int mUnknownStart;
+    private int mUnknownEnd;
+
+    /**
+     * Get position of item by id
+     *
+     * @param adapter the adapter to take ids from if the index must be updated
+     * @param id      the item id
+     * @return the position of first item with this id or {@link RecyclerView#NO_POSITION}
+     */
+    int positionOf(RecyclerView.Adapter adapter, long id) {
+        if (!isIndexable(id)) return RecyclerView.NO_POSITION;
+        if (!mValid || mCount != adapter.getItemCount()) {
+            rebuild(adapter);
+        } else {
+            update(adapter);
+        }
+        return mPositions.get(id, RecyclerView.NO_POSITION);
+    }
+
+    private void rebuild(RecyclerView.Adapter adapter) {
+        ensureCapacity(adapter.getItemCount());
+        mCount = adapter.getItemCount();
+        for (int position = 0; position < mCount; position++) {
+            mIds[position] = readId(adapter, position);
+        }
+        rebuildMap();
+        mUnknownStart = mUnknownEnd = 0;
+        mValid = true;
+    }
+
+    private void update(RecyclerView.Adapter adapter) {
+        final int end = Math.min(mUnknownEnd, mCount);
+        for (int position = mUnknownStart; position < end; position++) {
+            if (mIds[position] != UNKNOWN) continue;
+            final long id = readId(adapter, position);
+            mIds[position] = id;
+            if (mMapValid && isIndexable(id)) {
+                final int existing = mPositions.get(id, RecyclerView.NO_POSITION);
+                if (existing == RecyclerView.NO_POSITION) {
+                    mPositions.put(id, position);
+                } else {
+                    mDuplicates = true;
+                    if (position < existing) mPositions.put(id, position);
+                }
+            }
+        }
+        mUnknownStart = mUnknownEnd = 0;
+        if (!mMapValid) rebuildMap();
+    }
+
+    private void rebuildMap() {
+        mPositions.clear(mCount);
+        mDuplicates = false;
+        for (int position = 0; position < mCount; position++) {
+            final long id = mIds[position];
+            if (isIndexable(id) && !mPositions.putIfAbsent(id, position)) mDuplicates = true;
+        }
+        mMapValid = true;
+    }
+
+    private static long readId(RecyclerView.Adapter adapter, int position) {
+        final long id = adapter.getItemId(position);
+        // the marker can not be an id, such items are not indexed anyway
+        return id == UNKNOWN ? RecyclerView.NO_ID : id;
+    }
+
+    private static boolean isIndexable(long id) {
+        return id != RecyclerView.NO_ID && id != LongIntMap.EMPTY_KEY;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > mIds.length) mIds = Arrays.copyOf(mIds, Math.max(count, mIds.length * 2));
+    }
+
+    /**
+     * Forget ids of the range before they are changed or removed
+     */
+    private void forget(int positionStart, int itemCount) {
+        if (!mMapValid) return;
+        if (mDuplicates) {
+            mMapValid = false;
+            return;
+        }
+        for (int position = positionStart; position < positionStart + itemCount; position++) {
+            final long id = mIds[position];
+            if (isIndexable(id)) mPositions.remove(id);
+        }
+    }
+
+    private void markUnknown(int positionStart, int itemCount) {
+        Arrays.fill(mIds, positionStart, positionStart + itemCount, UNKNOWN);
+        if (mUnknownStart >= mUnknownEnd) {
+            mUnknownStart = positionStart;
+            mUnknownEnd = positionStart + itemCount;
+        } else {
+            mUnknownStart = Math.min(mUnknownStart, positionStart);
+            mUnknownEnd = Math.max(mUnknownEnd, positionStart + itemCount);
+        }
+    }
+
+    private boolean isInRange(int positionStart, int itemCount) {
+        return positionStart >= 0 && itemCount >= 0 && positionStart + itemCount <= mCount;
+    }
+
+    @Override
+    public void onChanged() {
+        mValid = false;
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        if (!mValid) return;
+        if (!isInRange(positionStart, itemCount)) {
+            mValid = false;
+            return;
+        }
+        forget(positionStart, itemCount);
+        markUnknown(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (!mValid) return;
+        if (positionStart < 0 || positionStart > mCount || itemCount < 0) {
+            mValid = false;
+            return;
+        }
+        ensureCapacity(mCount + itemCount);
+        System.arraycopy(mIds, positionStart, mIds, positionStart + itemCount, mCount - positionStart);
+        // positions after the range are shifted
+        if (positionStart < mCount) mMapValid = false;
+        mCount += itemCount;
+        if (mUnknownStart < mUnknownEnd) {
+            if (mUnknownStart >= positionStart) mUnknownStart += itemCount;
+            if (mUnknownEnd > positionStart) mUnknownEnd += itemCount;
+        }
+        markUnknown(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (!mValid) return;
+        if (!isInRange(positionStart, itemCount)) {
+            mValid = false;
+            return;
+        }
+        final int end = positionStart + itemCount;
+        if (end < mCount) {
+            // positions after the range are shifted
+            mMapValid = false;
+        } else {
+            forget(positionStart, itemCount);
+        }
+        System.arraycopy(mIds, end, mIds, positionStart, mCount - end);
+        mCount -= itemCount;
+        if (mUnknownStart < mUnknownEnd) {
+            mUnknownStart = shiftRemoved(mUnknownStart, positionStart, itemCount);
+            mUnknownEnd = shiftRemoved(mUnknownEnd, positionStart, itemCount);
+        }
+    }
+
+    private static int shiftRemoved(int position, int positionStart, int itemCount) {
+        if (position <= positionStart) return position;
+        return Math.max(positionStart, position - itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (!mValid) return;
+        if (!isInRange(fromPosition, itemCount) || !isInRange(toPosition, itemCount)) {
+            mValid = false;
+            return;
+        }
+        final long[] moved = Arrays.copyOfRange(mIds, fromPosition, fromPosition + itemCount);
+        if (fromPosition < toPosition) {
+            System.arraycopy(mIds, fromPosition + itemCount, mIds, fromPosition, toPosition - fromPosition);
+        } else {
+            System.arraycopy(mIds, toPosition, mIds, toPosition + itemCount, fromPosition - toPosition);
+        }
+        System.arraycopy(moved, 0, mIds, toPosition, itemCount);
+        mMapValid = false;
+        if (mUnknownStart < mUnknownEnd) {
+            // unknown positions stay within the union of the old range and the moved ranges
+            mUnknownStart = Math.min(mUnknownStart, Math.min(fromPosition, toPosition));
+            mUnknownEnd = Math.max(mUnknownEnd, Math.max(fromPosition, toPosition) + itemCount);
+        }
+    }
+}
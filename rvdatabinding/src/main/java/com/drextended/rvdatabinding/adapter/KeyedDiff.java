@@ -0,0 +1,283 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.Nullable;
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Diff of two lists of items with unique stable ids. Unlike {@link android.support.v7.util.DiffUtil},
+ * which takes O(N*D), matches items by ids through a hash map in linear time. If items are reordered,
+ * the longest increasing subsequence of kept items stays in place and other items are moved,
+ * which takes O(N log N). Uses only primitive arrays and maps.
+ */
+final class KeyedDiff {
+
+    private static final int OP_REMOVE = 0;
+    private static final int OP_INSERT = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+
+    /**
+     * Operations as triples of type and two arguments
+     */
+    private int[] mOps = new int[48];
+    private int mOpsSize;
+
+    private KeyedDiff() {
+    }
+
+    /**
+     * Calculates the diff
+     *
+     * @param oldItems        the old list
+     * @param newItems        the new list
+     * @param oldIds          the ids of items in the old list
+     * @param newIds          the ids of items in the new list
+     * @param contentCallback the callback to compare contents of items with the same id,
+     *                        if null items are compared by {@link Object#equals(Object)}
+     * @return the diff or null if any item has no id or ids are not unique
+     */
+    @Nullable
+    static KeyedDiff calculate(List oldItems, List newItems, long[] oldIds, long[] newIds,
+                               @Nullable DiffItemCallback contentCallback) {
+        final int oldSize = oldIds.length;
+        final int newSize = newIds.length;
+        final LongIntMap newPositions = new LongIntMap();
+        newPositions.clear(newSize);
+        for (int i = 0; i < newSize; i++) {
+            if (!isValidId(newIds[i]) || !newPositions.putIfAbsent(newIds[i], i)) return null;
+        }
+        final LongIntMap oldPositions = new LongIntMap();
+        oldPositions.clear(oldSize);
+        for (int i = 0; i < oldSize; i++) {
+            if (!isValidId(oldIds[i]) || !oldPositions.putIfAbsent(oldIds[i], i)) return null;
+        }
+
+        final KeyedDiff diff = new KeyedDiff();
+
+        // removes, from the end so positions of next removes are not shifted
+        int removeEnd = -1;
+        for (int i = oldSize - 1; i >= 0; i--) {
+            final boolean removed = newPositions.get(oldIds[i], -1) < 0;
+            if (removed && removeEnd < 0) removeEnd = i;
+            if (!removed && removeEnd >= 0) {
+                diff.add(OP_REMOVE, i + 1, removeEnd - i);
+                removeEnd = -1;
+            }
+        }
+        if (removeEnd >= 0) diff.add(OP_REMOVE, 0, removeEnd + 1);
+
+        // kept items in old order with their new positions
+        final int[] keptNewPositions = new int[oldSize];
+        final int[] keptIndexByOldPosition = new int[oldSize];
+        int keptCount = 0;
+        boolean ordered = true;
+        for (int i = 0; i < oldSize; i++) {
+            final int newPosition = newPositions.get(oldIds[i], -1);
+            keptIndexByOldPosition[i] = -1;
+            if (newPosition < 0) continue;
+            if (keptCount > 0 && newPosition < keptNewPositions[keptCount - 1]) ordered = false;
+            keptIndexByOldPosition[i] = keptCount;
+            keptNewPositions[keptCount++] = newPosition;
+        }
+
+        if (!ordered) diff.addMoves(newIds, oldPositions, keptNewPositions, keptIndexByOldPosition, keptCount);
+
+        // inserts, in order of new positions, so all previous items are already in place
+        int insertStart = -1;
+        for (int i = 0; i <= newSize; i++) {
+            final boolean inserted = i < newSize && oldPositions.get(newIds[i], -1) < 0;
+            if (inserted && insertStart < 0) insertStart = i;
+            if (!inserted && insertStart >= 0) {
+                diff.add(OP_INSERT, insertStart, i - insertStart);
+                insertStart = -1;
+            }
+        }
+
+        // changes, at the final positions
+        int changeStart = -1;
+        for (int i = 0; i <= newSize; i++) {
+            boolean changed = false;
+            if (i < newSize) {
+                final int oldPosition = oldPositions.get(newIds[i], -1);
+                changed = oldPosition >= 0 && !areContentsTheSame(oldItems.get(oldPosition), newItems.get(i), contentCallback);
+            }
+            if (changed && changeStart < 0) changeStart = i;
+            if (!changed && changeStart >= 0) {
+                diff.add(OP_CHANGE, changeStart, i - changeStart);
+                changeStart = -1;
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Adds moves for kept items which are not in the longest increasing subsequence of new positions.
+     * Each moved item is placed right after its predecessor in the new order among items already in place.
+     * Current positions are counted by a Fenwick tree over slots: each kept item has its old slot,
+     * and each moved item has a new slot right after the stable item preceding it in the new order.
+     */
+    private void addMoves(long[] newIds, LongIntMap oldPositions, int[] keptNewPositions,
+                          int[] keptIndexByOldPosition, int keptCount) {
+        final boolean[] stable = longestIncreasingSubsequence(keptNewPositions, keptCount);
+
+        // the stable item preceding each moved item in the new order, -1 for the head of list
+        final int[] anchors = new int[keptCount];
+        final int[] chainSizes = new int[keptCount + 1];
+        int anchor = -1;
+        for (long id : newIds) {
+            final int oldPosition = oldPositions.get(id, -1);
+            if (oldPosition < 0) continue;
+            final int kept = keptIndexByOldPosition[oldPosition];
+            if (stable[kept]) {
+                anchor = kept;
+            } else {
+                anchors[kept] = anchor;
+                chainSizes[anchor + 1]++;
+            }
+        }
+
+        // slots: moved items after the head, then each kept item followed by moved items anchored to it
+        final int[] oldSlots = new int[keptCount];
+        final int[] chainStarts = new int[keptCount + 1];
+        int slot = 0;
+        chainStarts[0] = slot;
+        slot += chainSizes[0];
+        for (int i = 0; i < keptCount; i++) {
+            oldSlots[i] = slot++;
+            if (stable[i]) {
+                chainStarts[i + 1] = slot;
+                slot += chainSizes[i + 1];
+            }
+        }
+
+        final int[] tree = new int[slot + 1];
+        for (int i = 0; i < keptCount; i++) {
+            tree[oldSlots[i] + 1] = 1;
+        }
+        for (int i = 1; i <= slot; i++) {
+            final int parent = i + (i & -i);
+            if (parent <= slot) tree[parent] += tree[i];
+        }
+
+        for (long id : newIds) {
+            final int oldPosition = oldPositions.get(id, -1);
+            if (oldPosition < 0) continue;
+            final int kept = keptIndexByOldPosition[oldPosition];
+            if (stable[kept]) continue;
+            final int newSlot = chainStarts[anchors[kept] + 1]++;
+            final int from = countBefore(tree, oldSlots[kept]);
+            update(tree, oldSlots[kept], -1);
+            final int to = countBefore(tree, newSlot);
+            update(tree, newSlot, 1);
+            if (from != to) add(OP_MOVE, from, to);
+        }
+    }
+
+    /**
+     * Dispatches the diff as list updates
+     *
+     * @param callback the callback, for example adapter
+     */
+    void dispatchUpdatesTo(ListUpdateCallback callback) {
+        final BatchingListUpdateCallback batching = new BatchingListUpdateCallback(callback);
+        for (int i = 0; i < mOpsSize; i += 3) {
+            final int first = mOps[i + 1];
+            final int second = mOps[i + 2];
+            switch (mOps[i]) {
+                case OP_REMOVE:
+                    batching.onRemoved(first, second);
+                    break;
+                case OP_INSERT:
+                    batching.onInserted(first, second);
+                    break;
+                case OP_MOVE:
+                    batching.onMoved(first, second);
+                    break;
+                case OP_CHANGE:
+                    batching.onChanged(first, second, null);
+                    break;
+            }
+        }
+        batching.dispatchLastEvent();
+    }
+
+    private void add(int op, int first, int second) {
+        if (mOpsSize + 3 > mOps.length) mOps = Arrays.copyOf(mOps, mOps.length * 2);
+        mOps[mOpsSize++] = op;
+        mOps[mOpsSize++] = first;
+        mOps[mOpsSize++] = second;
+    }
+
+    private static boolean isValidId(long id) {
+        return id != RecyclerView.NO_ID && id != LongIntMap.EMPTY_KEY;
+    }
+
+    private static boolean areContentsTheSame(Object oldItem, Object newItem, DiffItemCallback callback) {
+        if (oldItem == null || newItem == null) return oldItem == newItem;
+        //noinspection unchecked
+        return callback != null ? callback.areContentsTheSame(oldItem, newItem) : oldItem.equals(newItem);
+    }
+
+    /**
+     * Marks elements of the longest strictly increasing subsequence
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values, int count) {
+        final int[] tails = new int[count];
+        final int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) low = mid + 1;
+                else high = mid;
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) length++;
+        }
+        final boolean[] result = new boolean[count];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    /**
+     * @return count of occupied slots before the slot
+     */
+    private static int countBefore(int[] tree, int slot) {
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private static void update(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+}
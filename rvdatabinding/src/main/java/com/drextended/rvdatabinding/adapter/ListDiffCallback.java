@@ -0,0 +1,103 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * DiffUtil callback for two lists of items. Uses {@link DiffItemCallback} if it is set,
+ * otherwise items are compared by ids provided by delegates implementing
+ * {@link com.drextended.rvdatabinding.delegate.IdHolder} and contents by {@link Object#equals(Object)}.
+ */
+class ListDiffCallback extends DiffUtil.Callback {
+
+    private final List mOldItems;
+    private final List mNewItems;
+    private final DiffItemCallback mItemCallback;
+    private final long[] mOldIds;
+    private final long[] mNewIds;
+
+    /**
+     * Creates diff callback for comparing items by ids
+     *
+     * @param oldItems the old list
+     * @param newItems the new list
+     * @param oldIds   the ids of items in the old list
+     * @param newIds   the ids of items in the new list
+     */
+    ListDiffCallback(List oldItems, List newItems, long[] oldIds, long[] newIds) {
+        mOldItems = oldItems;
+        mNewItems = newItems;
+        mItemCallback = null;
+        mOldIds = oldIds;
+        mNewIds = newIds;
+    }
+
+    /**
+     * Creates diff callback for comparing items by custom item callback
+     *
+     * @param oldItems     the old list
+     * @param newItems     the new list
+     * @param itemCallback the item callback
+     */
+    ListDiffCallback(List oldItems, List newItems, DiffItemCallback itemCallback) {
+        mOldItems = oldItems;
+        mNewItems = newItems;
+        mItemCallback = itemCallback;
+        mOldIds = null;
+        mNewIds = null;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        final Object oldItem = mOldItems.get(oldItemPosition);
+        final Object newItem = mNewItems.get(newItemPosition);
+        if (oldItem == null || newItem == null) return oldItem == newItem;
+        if (mItemCallback != null) {
+            //noinspection unchecked
+            return mItemCallback.areItemsTheSame(oldItem, newItem);
+        }
+        final long oldId = mOldIds[oldItemPosition];
+        final long newId = mNewIds[newItemPosition];
+        if (oldId == RecyclerView.NO_ID || newId == RecyclerView.NO_ID) return oldItem.equals(newItem);
+        return oldId == newId && oldItem.getClass() == newItem.getClass();
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        final Object oldItem = mOldItems.get(oldItemPosition);
+        final Object newItem = mNewItems.get(newItemPosition);
+        if (oldItem == null || newItem == null) return oldItem == newItem;
+        if (mItemCallback != null) {
+            //noinspection unchecked
+            return mItemCallback.areContentsTheSame(oldItem, newItem);
+        }
+        return oldItem.equals(newItem);
+    }
+}
@@ -16,10 +16,9 @@
 
 package com.drextended.rvdatabinding.adapter;
 
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
-import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
-import android.support.v7.widget.StaggeredGridLayoutManager;
 
 import static android.support.v7.widget.RecyclerView.LayoutManager;
 import static android.support.v7.widget.RecyclerView.OnScrollListener;
@@ -47,10 +46,45 @@ import static android.support.v7.widget.RecyclerView.OnScrollListener;
 public class LoadMoreScrollListener extends OnScrollListener {
 
     private static final int DEFAULT_VISIBLE_THRESOLD = 5;
+
+    /**
+     * Default expected duration of loading, used for adaptive threshold until the first load is finished
+     */
+    public static final long DEFAULT_EXPECTED_LOAD_LATENCY_MS = 500;
+
+    /**
+     * Min interval between velocity samples, shorter ones are too coarse as positions are discrete
+     */
+    private static final long VELOCITY_SAMPLE_INTERVAL_MS = 50;
+
+    /**
+     * Weight of the new sample in moving averages of velocity and load latency
+     */
+    private static final float SMOOTHING = 0.5f;
+
     private final OnLoadMoreListener mMoreListener;
     private int mVisibleThreshold; // The minimum amount of items to have below your current scroll position before loading more.
+    private LoadedRangeProvider mLoadedRangeProvider;
+    private final VisibleRangeTracker mVisibleRange = new VisibleRangeTracker();
     private int firstVisibleItem, lastVisibleItem, visibleItemCount, totalItemCount;
 
+    private boolean mAdaptiveThreshold;
+    private int mMinThreshold;
+    private int mMaxThreshold;
+    private float mItemsPerSecond;
+    private float mLoadLatencyMs = DEFAULT_EXPECTED_LOAD_LATENCY_MS;
+    private int mSamplePosition = RecyclerView.NO_POSITION;
+    private long mSampleTime;
+
+    private final LoadRequestTracker mRequests = new LoadRequestTracker() {
+        @Override
+        void onRequestFinished(LoadRequest request) {
+            if (!mAdaptiveThreshold) return;
+            final long latency = SystemClock.uptimeMillis() - request.getStartTime();
+            mLoadLatencyMs += (latency - mLoadLatencyMs) * SMOOTHING;
+        }
+    };
+
     /**
      * Listener for implementing lazy loading list (endless list)
      */
@@ -68,6 +102,21 @@ public class LoadMoreScrollListener extends OnScrollListener {
         boolean isLoading();
     }
 
+    /**
+     * Listener which receives a token for each loading request. Only one request is in flight:
+     * the next one is fired after the current one is completed by {@link LoadRequest#complete()},
+     * so there are no duplicate requests while the adapter is not updated yet.
+     * {@link OnLoadMoreListener#onLoadMore()} is not called for this listener.
+     */
+    public interface OnLoadRequestListener extends OnLoadMoreListener {
+        /**
+         * Callback for starting loading new portion of data
+         *
+         * @param request the token of request, results should be applied only if {@link LoadRequest#complete()} returns true
+         */
+        void onLoadMore(@NonNull LoadRequest request);
+    }
+
     /**
      * Creates ScrollListener for implementing lazy loading list (endless list)
      * If there are less then 5 items after last visible item in recycler view
@@ -94,35 +143,148 @@ public class LoadMoreScrollListener extends OnScrollListener {
         mVisibleThreshold = visibleThreshold;
     }
 
+    /**
+     * Set provider of loaded range for lists with placeholders of not loaded items after loaded ones.
+     * Loading starts when the end of the loaded range is close, instead of the end of the list.
+     * The start of the range is ignored, so use {@link TwoWayLoadingScrollListener} for lists which drop
+     * loaded items from the start, like {@link PagedBindableAdapter}.
+     *
+     * @param loadedRangeProvider the provider or null to use the end of the list
+     */
+    public void setLoadedRangeProvider(LoadedRangeProvider loadedRangeProvider) {
+        mLoadedRangeProvider = loadedRangeProvider;
+    }
+
+    /**
+     * Enable adaptive threshold, computed from scroll velocity in items per second
+     * and duration of recent loadings, so the next portion of data arrives just before it is needed.
+     * The duration of loading is measured from firing request till {@link LoadRequest#complete()},
+     * or till {@link OnLoadMoreListener#isLoading()} returns false if listener is not {@link OnLoadRequestListener}.
+     * The threshold passed to constructor is used while the list is idle.
+     *
+     * @param minThreshold the min amount of items after last visible item to start loading
+     * @param maxThreshold the max amount of items after last visible item to start loading
+     */
+    public void setAdaptiveThreshold(int minThreshold, int maxThreshold) {
+        if (minThreshold < 0 || maxThreshold < minThreshold) {
+            throw new IllegalArgumentException("Invalid threshold bounds: " + minThreshold + ".." + maxThreshold);
+        }
+        mAdaptiveThreshold = true;
+        mMinThreshold = minThreshold;
+        mMaxThreshold = maxThreshold;
+    }
+
+    /**
+     * Disable adaptive threshold, the threshold passed to constructor is used
+     */
+    public void disableAdaptiveThreshold() {
+        mAdaptiveThreshold = false;
+    }
+
+    /**
+     * Set expected duration of loading, used for adaptive threshold until the first load is finished
+     *
+     * @param latencyMs the duration in milliseconds
+     */
+    public void setExpectedLoadLatency(long latencyMs) {
+        mLoadLatencyMs = latencyMs;
+    }
+
+    /**
+     * @return the current threshold, the amount of items after last visible item to start loading
+     */
+    public int getVisibleThreshold() {
+        if (!mAdaptiveThreshold || mSamplePosition == RecyclerView.NO_POSITION) return mVisibleThreshold;
+        final int ahead = (int) Math.ceil(mItemsPerSecond * mLoadLatencyMs / 1000f);
+        return Math.max(mMinThreshold, Math.min(mMaxThreshold, mMinThreshold + ahead));
+    }
+
+    /**
+     * Reset loading state after the data set is reset: in-flight request is cancelled
+     * and its results will be discarded by {@link LoadRequest#complete()}
+     */
+    public void resetRequests() {
+        mRequests.reset();
+    }
+
+    /**
+     * @return the in-flight loading request or null
+     */
+    public LoadRequest getInFlightRequest() {
+        return mRequests.getInFlight(LoadRequest.DIRECTION_FORWARD);
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        super.onScrollStateChanged(recyclerView, newState);
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            mItemsPerSecond = 0;
+            mSamplePosition = RecyclerView.NO_POSITION;
+        }
+    }
+
     @Override
     public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
         super.onScrolled(recyclerView, dx, dy);
 
-        if (dy < 0) return;
-
         final LayoutManager layoutManager = getLayoutManager(recyclerView);
         if (layoutManager == null) return;
 
-        visibleItemCount = layoutManager.getChildCount();
+        mVisibleRange.update(layoutManager);
+        finishLegacyRequest();
+        if (mAdaptiveThreshold) trackVelocity(mVisibleRange.getLastVisible());
+        if (mVisibleRange.toForwardDelta(dx, dy) < 0) return;
+
+        visibleItemCount = mVisibleRange.getVisibleCount();
         totalItemCount = layoutManager.getItemCount();
-        firstVisibleItem = getFirstVisibleItemPosition(layoutManager);
-        lastVisibleItem = firstVisibleItem + visibleItemCount - 1;
+        firstVisibleItem = mVisibleRange.getFirstVisible();
+        lastVisibleItem = mVisibleRange.getLastVisible();
+        if (lastVisibleItem == RecyclerView.NO_POSITION) return;
+
+        final int loadedEnd = mLoadedRangeProvider != null ? mLoadedRangeProvider.getLoadedEnd() : totalItemCount;
 
         if (!mMoreListener.isLoading()
-                && lastVisibleItem >= (totalItemCount - mVisibleThreshold)) {
+                && getInFlightRequest() == null
+                && lastVisibleItem >= (loadedEnd - getVisibleThreshold())) {
             // End has been reached
-            mMoreListener.onLoadMore();
+            final LoadRequest request = mRequests.start(LoadRequest.DIRECTION_FORWARD);
+            if (mMoreListener instanceof OnLoadRequestListener) {
+                ((OnLoadRequestListener) mMoreListener).onLoadMore(request);
+            } else {
+                mMoreListener.onLoadMore();
+            }
         }
     }
 
-    private int getFirstVisibleItemPosition(LayoutManager layoutManager) {
-        int pos = 0;
-        if (layoutManager instanceof LinearLayoutManager) {
-            pos = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
-        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
-            pos = ((StaggeredGridLayoutManager) layoutManager).findFirstVisibleItemPositions(null)[0];
+    /**
+     * Listeners without tokens report completion only by {@link OnLoadMoreListener#isLoading()}
+     */
+    private void finishLegacyRequest() {
+        if (mMoreListener instanceof OnLoadRequestListener) return;
+        final LoadRequest request = getInFlightRequest();
+        if (request != null && !mMoreListener.isLoading()) request.complete();
+    }
+
+    private void trackVelocity(int position) {
+        final long now = SystemClock.uptimeMillis();
+        if (position == RecyclerView.NO_POSITION || position < mSamplePosition) {
+            // scrolled back, forward velocity is unknown
+            mItemsPerSecond = 0;
+            mSamplePosition = position;
+            mSampleTime = now;
+            return;
+        }
+        if (mSamplePosition == RecyclerView.NO_POSITION) {
+            mSamplePosition = position;
+            mSampleTime = now;
+            return;
         }
-        return pos;
+        final long elapsed = now - mSampleTime;
+        if (elapsed < VELOCITY_SAMPLE_INTERVAL_MS) return;
+        final float itemsPerSecond = (position - mSamplePosition) * 1000f / elapsed;
+        mItemsPerSecond += (itemsPerSecond - mItemsPerSecond) * SMOOTHING;
+        mSamplePosition = position;
+        mSampleTime = now;
     }
 
     private LayoutManager getLayoutManager(RecyclerView recyclerView) {
@@ -0,0 +1,89 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+/**
+ * Token of loading request fired by {@link LoadMoreScrollListener} or {@link TwoWayLoadingScrollListener}.
+ * Only one request per direction is in flight, the next one is not fired until this one is completed
+ * by {@link #complete()} or cancelled. Results of the request must be applied only if {@link #complete()}
+ * returns true, otherwise the request was cancelled or the data set was reset after it was fired.
+ * Must be used on main thread.
+ */
+public final class LoadRequest {
+
+    public static final int DIRECTION_FORWARD = 0;
+    public static final int DIRECTION_BACKWARD = 1;
+
+    private final LoadRequestTracker mTracker;
+    private final int mDirection;
+    private final int mGeneration;
+    private final long mStartTime;
+    boolean mCancelled;
+    boolean mFinished;
+
+    LoadRequest(LoadRequestTracker tracker, int direction, int generation, long startTime) {
+        mTracker = tracker;
+        mDirection = direction;
+        mGeneration = generation;
+        mStartTime = startTime;
+    }
+
+    /**
+     * @return {@link #DIRECTION_FORWARD} or {@link #DIRECTION_BACKWARD}
+     */
+    public int getDirection() {
+        return mDirection;
+    }
+
+    /**
+     * @return the generation of data set the request was fired for
+     */
+    public int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * @return the time the request was fired, in {@link android.os.SystemClock#uptimeMillis()} base
+     */
+    public long getStartTime() {
+        return mStartTime;
+    }
+
+    /**
+     * @return true if the request was cancelled by the scroll listener
+     */
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * @return true if results of the request still may be applied
+     */
+    public boolean isValid() {
+        return !mCancelled && !mFinished && mGeneration == mTracker.getGeneration();
+    }
+
+    /**
+     * Complete the request, successful or not, so the next request in the same direction can be fired
+     *
+     * @return true if results of the request should be applied, false if the request was cancelled,
+     * already completed or the data set was reset after it was fired
+     */
+    public boolean complete() {
+        return mTracker.finish(this);
+    }
+}
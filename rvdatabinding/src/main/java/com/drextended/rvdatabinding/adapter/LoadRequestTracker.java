@@ -0,0 +1,82 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.os.SystemClock;
+
+/**
+ * Keeps at most one in-flight {@link LoadRequest} per direction and the generation of data set
+ */
+class LoadRequestTracker {
+
+    private final LoadRequest[] mInFlight = new LoadRequest[2];
+    private int mGeneration;
+
+    /**
+     * @return new in-flight request or null if there is one in this direction already
+     */
+    LoadRequest start(int direction) {
+        if (mInFlight[direction] != null) return null;
+        final LoadRequest request = new LoadRequest(this, direction, mGeneration, SystemClock.uptimeMillis());
+        mInFlight[direction] = request;
+        return request;
+    }
+
+    LoadRequest getInFlight(int direction) {
+        return mInFlight[direction];
+    }
+
+    boolean finish(LoadRequest request) {
+        if (request.mFinished) return false;
+        request.mFinished = true;
+        final int direction = request.getDirection();
+        if (mInFlight[direction] == request) mInFlight[direction] = null;
+        final boolean valid = !request.mCancelled && request.getGeneration() == mGeneration;
+        if (valid) onRequestFinished(request);
+        return valid;
+    }
+
+    /**
+     * @return the cancelled request or null if there is no in-flight one in this direction
+     */
+    LoadRequest cancel(int direction) {
+        final LoadRequest request = mInFlight[direction];
+        if (request == null) return null;
+        request.mCancelled = true;
+        mInFlight[direction] = null;
+        return request;
+    }
+
+    /**
+     * Start new generation of data set, results of all fired requests will be discarded
+     */
+    void reset() {
+        mGeneration++;
+        cancel(LoadRequest.DIRECTION_FORWARD);
+        cancel(LoadRequest.DIRECTION_BACKWARD);
+    }
+
+    int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Called when a valid request is completed
+     */
+    void onRequestFinished(LoadRequest request) {
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+/**
+ * Provider of the range of loaded items for lists which keep placeholders of not loaded items,
+ * like {@link PagedBindableAdapter}. Scroll listeners use it to start loading relative to the
+ * loaded range instead of the ends of the list.
+ */
+public interface LoadedRangeProvider {
+
+    /**
+     * @return position of the first loaded item
+     */
+    int getLoadedStart();
+
+    /**
+     * @return position after the last loaded item, equal to {@link #getLoadedStart()} if nothing is loaded
+     */
+    int getLoadedEnd();
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.adapter;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to int values without boxing.
+ * Uses open addressing with linear probing. The key {@link #EMPTY_KEY} can not be stored.
+ */
+class LongIntMap {
+
+    static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private long[] mKeys;
+    private int[] mValues;
+    private int mSize;
+
+    LongIntMap() {
+        allocate(16);
+    }
+
+    /**
+     * Get value for the key
+     *
+     * @param key          the key
+     * @param defaultValue the value to return if there is no such key
+     * @return the value or defaultValue
+     */
+    int get(long key, int defaultValue) {
+        final int mask = mKeys.length - 1;
+        int index = hash(key) & mask;
+        long k;
+        while ((k = mKeys[index]) != EMPTY_KEY) {
+            if (k == key) return mValues[index];
+            index = (index + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Put value for the key if there is no value for it yet
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the value was put, false if the key already exists
+     */
+    boolean putIfAbsent(long key, int value) {
+        if ((mSize + 1) * 2 > mKeys.length) rehash(mKeys.length * 2);
+        final int mask = mKeys.length - 1;
+        int index = hash(key) & mask;
+        long k;
+        while ((k = mKeys[index]) != EMPTY_KEY) {
+            if (k == key) return false;
+            index = (index + 1) & mask;
+        }
+        mKeys[index] = key;
+        mValues[index] = value;
+        mSize++;
+        return true;
+    }
+
+    /**
+     * Put value for the key, replacing the existing one
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void put(long key, int value) {
+        if ((mSize + 1) * 2 > mKeys.length) rehash(mKeys.length * 2);
+        final int mask = mKeys.length - 1;
+        int index = hash(key) & mask;
+        long k;
+        while ((k = mKeys[index]) != EMPTY_KEY) {
+            if (k == key) {
+                mValues[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        mKeys[index] = key;
+        mValues[index] = value;
+        mSize++;
+    }
+
+    /**
+     * Remove the key
+     *
+     * @param key the key
+     * @return true if the key was removed, false if there is no such key
+     */
+    boolean remove(long key) {
+        final int mask = mKeys.length - 1;
+        int gap = hash(key) & mask;
+        long k;
+        while ((k = mKeys[gap]) != key) {
+            if (k == EMPTY_KEY) return false;
+            gap = (gap + 1) & mask;
+        }
+        // shift back following entries of the probe sequence, so lookups do not stop at the gap
+        int index = (gap + 1) & mask;
+        while ((k = mKeys[index]) != EMPTY_KEY) {
+            final int home = hash(k) & mask;
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                mKeys[gap] = k;
+                mValues[gap] = mValues[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        mKeys[gap] = EMPTY_KEY;
+        mSize--;
+        return true;
+    }
+
+    /**
+     * Remove all entries and ensure capacity for the expected count of entries
+     *
+     * @param expectedSize the expected count of entries
+     */
+    void clear(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        if (capacity > mKeys.length || capacity * 4 < mKeys.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(mKeys, EMPTY_KEY);
+        }
+        mSize = 0;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        Arrays.fill(mKeys, EMPTY_KEY);
+    }
+
+    private void rehash(int capacity) {
+        final long[] keys = mKeys;
+        final int[] values = mValues;
+        allocate(capacity);
+        mSize = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) putIfAbsent(keys[i], values[i]);
+        }
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of items stored in a memory-mapped file, which decodes items on {@link #get(int)}
+ * and keeps only bounded count of decoded items in LRU cache, so heap footprint does not depend
+ * on the count of items. Can be set to {@link BindableAdapter} by {@link BindableAdapter#setItems(java.util.List)}
+ * for lists of millions of items; do not pass it to {@link BindableAdapter#submitList(java.util.List)},
+ * as calculating the difference decodes all items.
+ * <p>
+ * Records are either of fixed size, or of any size with index file, which contains big-endian
+ * {@code long} offset of each record in data file (as written by {@link java.io.DataOutputStream#writeLong(long)}).
+ * Data file must be less than 2 GB. Files must not be changed while the list is open.
+ * <p>
+ * {@link #equals(Object)} and {@link #hashCode()} are identity based, to not decode all items.
+ * Must be used on main thread.
+ *
+ * @param <E> The type of items
+ */
+public class MappedFileList<E> extends AbstractList<E> implements RandomAccess, Closeable {
+
+    /**
+     * Decoder of records to items
+     *
+     * @param <E> The type of items
+     */
+    public interface RecordDecoder<E> {
+        /**
+         * Decode the record
+         *
+         * @param record   the buffer with the record between position and limit, must not be kept after return
+         * @param position the position of the record in the list
+         * @return the decoded item
+         */
+        E decode(@NonNull ByteBuffer record, int position);
+    }
+
+    private final RecordDecoder<E> mDecoder;
+    private final LruCache<Integer, E> mCache;
+    private final RandomAccessFile mDataFile;
+    private final RandomAccessFile mIndexFile;
+    private final ByteBuffer mData;
+    private final LongBuffer mIndex;
+    private final int mRecordSize;
+    private final int mSize;
+
+    /**
+     * Open list of fixed size records
+     *
+     * @param dataFile   the file of records
+     * @param recordSize the size of record in bytes
+     * @param cacheSize  the max count of decoded items kept in memory
+     * @param decoder    the decoder of records
+     * @throws IOException if the file can not be mapped
+     */
+    public MappedFileList(@NonNull File dataFile, int recordSize, int cacheSize,
+                          @NonNull RecordDecoder<E> decoder) throws IOException {
+        if (recordSize <= 0) throw new IllegalArgumentException("Record size must be positive");
+        mDecoder = decoder;
+        mCache = new LruCache<>(cacheSize);
+        mRecordSize = recordSize;
+        mIndexFile = null;
+        mIndex = null;
+        mDataFile = new RandomAccessFile(dataFile, "r");
+        try {
+            mData = map(mDataFile);
+        } catch (IOException e) {
+            mDataFile.close();
+            throw e;
+        }
+        mSize = mData.capacity() / recordSize;
+    }
+
+    /**
+     * Open list of records of any size with index file
+     *
+     * @param dataFile  the file of records
+     * @param indexFile the file of big-endian long offsets of records in data file
+     * @param cacheSize the max count of decoded items kept in memory
+     * @param decoder   the decoder of records
+     * @throws IOException if the files can not be mapped
+     */
+    public MappedFileList(@NonNull File dataFile, @NonNull File indexFile, int cacheSize,
+                          @NonNull RecordDecoder<E> decoder) throws IOException {
+        mDecoder = decoder;
+        mCache = new LruCache<>(cacheSize);
+        mRecordSize = 0;
+        mDataFile = new RandomAccessFile(dataFile, "r");
+        RandomAccessFile index = null;
+        try {
+            mData = map(mDataFile);
+            index = new RandomAccessFile(indexFile, "r");
+            mIndex = map(index).asLongBuffer();
+        } catch (IOException e) {
+            mDataFile.close();
+            if (index != null) index.close();
+            throw e;
+        }
+        mIndexFile = index;
+        mSize = mIndex.capacity();
+    }
+
+    private static MappedByteBuffer map(RandomAccessFile file) throws IOException {
+        final FileChannel channel = file.getChannel();
+        final long length = channel.size();
+        if (length > Integer.MAX_VALUE) throw new IOException("File is too large to map: " + length);
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+        }
+        E item = mCache.get(index);
+        if (item != null) return item;
+
+        final int start;
+        final int end;
+        if (mIndex == null) {
+            start = index * mRecordSize;
+            end = start + mRecordSize;
+        } else {
+            start = (int) mIndex.get(index);
+            end = index + 1 < mSize ? (int) mIndex.get(index + 1) : mData.capacity();
+        }
+        mData.clear();
+        mData.position(start);
+        mData.limit(end);
+        item = mDecoder.decode(mData, index);
+        if (item != null) mCache.put(index, item);
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Drop all decoded items from cache
+     */
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    /**
+     * Close the files. The mappings stay valid until the list is garbage collected,
+     * so the list still can be used by adapter until new items are set.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            mDataFile.close();
+        } finally {
+            if (mIndexFile != null) mIndexFile.close();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+import java.util.List;
+
+/**
+ * RecyclerView ScrollListener for endless lists with slow backend, which keeps several page requests
+ * in flight ahead of the viewport instead of one, as {@link LoadMoreScrollListener} does.
+ * Pages are appended to {@link PagedBindableAdapter} strictly in order, even if responses arrive out of order.
+ * While the list is scrolled, up to {@code maxInFlight} pages after the page of last visible item
+ * are requested, when it is idle only {@code idleInFlight} pages.
+ * <pre>
+ * {@code
+ *      recyclerView.addOnScrollListener(new PagePrefetcher<>(mAdapter, 3, new PagePrefetcher.PageLoader<Item>() {
+ *          public void loadPage(int page, PagePrefetcher.PageRequest<Item> request) {
+ *              // load items, then on main thread request.deliver(items) or request.fail()
+ *          }
+ *      }));
+ * }
+ * </pre>
+ * The end of the list is reached when a page with less items than page size is delivered.
+ * Must be used on main thread.
+ *
+ * @param <E> The type of items
+ */
+public class PagePrefetcher<E> extends RecyclerView.OnScrollListener {
+
+    /**
+     * Default count of pages requested ahead while the list is idle
+     */
+    public static final int DEFAULT_IDLE_IN_FLIGHT = 1;
+
+    /**
+     * Loader of pages
+     *
+     * @param <E> The type of items
+     */
+    public interface PageLoader<E> {
+        /**
+         * Start loading the page
+         *
+         * @param page    the page index
+         * @param request the token to deliver results of loading to
+         */
+        void loadPage(int page, @NonNull PageRequest<E> request);
+    }
+
+    /**
+     * Token of page request, results must be delivered on main thread
+     *
+     * @param <E> The type of items
+     */
+    public static final class PageRequest<E> {
+        private final PagePrefetcher<E> mPrefetcher;
+        private final int mPage;
+        private final int mGeneration;
+        private boolean mFinished;
+
+        PageRequest(PagePrefetcher<E> prefetcher, int page, int generation) {
+            mPrefetcher = prefetcher;
+            mPage = page;
+            mGeneration = generation;
+        }
+
+        public int getPage() {
+            return mPage;
+        }
+
+        /**
+         * @return true if results of the request still may be applied
+         */
+        public boolean isValid() {
+            return !mFinished && mGeneration == mPrefetcher.mGeneration;
+        }
+
+        /**
+         * Deliver loaded items, they are applied to adapter after all previous pages
+         *
+         * @param items the items of the page, less than page size if the page is the last one
+         */
+        public void deliver(@NonNull List<E> items) {
+            if (!isValid()) return;
+            mFinished = true;
+            mPrefetcher.onDelivered(this, items);
+        }
+
+        /**
+         * Report failed loading, the page will be requested again on the next scroll
+         */
+        public void fail() {
+            if (!isValid()) return;
+            mFinished = true;
+            mPrefetcher.mInFlight.remove(mPage);
+        }
+    }
+
+    private final PagedBindableAdapter<E> mAdapter;
+    private final PageLoader<E> mLoader;
+    private final int mMaxInFlight;
+    private int mIdleInFlight = DEFAULT_IDLE_IN_FLIGHT;
+
+    private final SparseArray<PageRequest<E>> mInFlight = new SparseArray<>();
+    private final SparseArray<List<E>> mCompleted = new SparseArray<>();
+    private final VisibleRangeTracker mVisibleRange = new VisibleRangeTracker();
+    private int mGeneration;
+    private int mNextApplyPage;
+    private int mEndPage = Integer.MAX_VALUE;
+    private int mLastVisible = RecyclerView.NO_POSITION;
+    private boolean mScrolling;
+
+    /**
+     * Creates prefetcher, which appends pages after the pages already set to the adapter
+     *
+     * @param adapter     the adapter to append pages to
+     * @param maxInFlight the max count of page requests in flight while the list is scrolled
+     * @param loader      the loader of pages
+     */
+    public PagePrefetcher(@NonNull PagedBindableAdapter<E> adapter, int maxInFlight, @NonNull PageLoader<E> loader) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Max in flight must be positive");
+        mAdapter = adapter;
+        mLoader = loader;
+        mMaxInFlight = maxInFlight;
+        mNextApplyPage = adapter.getPageCount();
+    }
+
+    /**
+     * Set count of pages requested ahead while the list is idle
+     *
+     * @param idleInFlight the count of pages, not greater than max in flight
+     */
+    public void setIdleInFlight(int idleInFlight) {
+        mIdleInFlight = Math.min(idleInFlight, mMaxInFlight);
+    }
+
+    /**
+     * @return the count of page requests in flight
+     */
+    public int getInFlightCount() {
+        return mInFlight.size();
+    }
+
+    /**
+     * @return true if the last page is applied
+     */
+    public boolean isEndReached() {
+        return mNextApplyPage > mEndPage;
+    }
+
+    /**
+     * Request pages ahead of the last known visible position, if there are free slots.
+     * Called on scroll, call it to load the first pages before the list is laid out.
+     */
+    public void prefetch() {
+        final int depth = mScrolling ? mMaxInFlight : mIdleInFlight;
+        final int visiblePage = Math.max(0, mLastVisible) / mAdapter.getPageSize();
+        final int lastWanted = Math.min(mEndPage, visiblePage + depth);
+        for (int page = mNextApplyPage; page <= lastWanted && mInFlight.size() < depth; page++) {
+            if (mInFlight.get(page) != null || mCompleted.get(page) != null) continue;
+            final PageRequest<E> request = new PageRequest<>(this, page, mGeneration);
+            mInFlight.put(page, request);
+            mLoader.loadPage(page, request);
+        }
+    }
+
+    /**
+     * Drop all requests and pending pages, e.g. after the adapter was cleared.
+     * Results of requests in flight are discarded.
+     */
+    public void reset() {
+        mGeneration++;
+        mInFlight.clear();
+        mCompleted.clear();
+        mNextApplyPage = mAdapter.getPageCount();
+        mEndPage = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        super.onScrollStateChanged(recyclerView, newState);
+        mScrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+        prefetch();
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        super.onScrolled(recyclerView, dx, dy);
+        mVisibleRange.update(recyclerView.getLayoutManager());
+        mLastVisible = mVisibleRange.getLastVisible();
+        prefetch();
+    }
+
+    private void onDelivered(PageRequest<E> request, List<E> items) {
+        final int page = request.getPage();
+        mInFlight.remove(page);
+        if (page > mEndPage) return;
+        if (items.size() < mAdapter.getPageSize()) mEndPage = page;
+        mCompleted.put(page, items);
+
+        List<E> next;
+        while (mNextApplyPage <= mEndPage && (next = mCompleted.get(mNextApplyPage)) != null) {
+            mCompleted.remove(mNextApplyPage);
+            if (!next.isEmpty()) mAdapter.setPage(mNextApplyPage, next);
+            mNextApplyPage++;
+        }
+        if (isEndReached()) {
+            mInFlight.clear();
+            mCompleted.clear();
+        } else {
+            prefetch();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+import com.drextended.rvdatabinding.delegate.PlaceholderItemDelegate;
+import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
+
+import java.util.List;
+
+/**
+ * Adapter for endless lists loaded by pages, which keeps in memory at most given count of pages.
+ * Resident pages always form a continuous window. When a page is loaded and the window exceeds the limit,
+ * the page at the end of the window farthest from the last bound position is dropped and its items
+ * are replaced by placeholders (null items, displayed by {@link PlaceholderItemDelegate}),
+ * so {@link #getItemCount()} does not change.
+ * <p>
+ * Use it with {@link TwoWayLoadingScrollListener} with this adapter set as {@link LoadedRangeProvider}:
+ * it fires when the user scrolls close to the ends of the window, then load {@link #getBackwardPage()}
+ * or {@link #getForwardPage()} and set it by {@link #setPage(int, List)}. Do not use {@link LoadMoreScrollListener},
+ * it loads only forward, so pages dropped before the window are never loaded again.
+ * <pre>
+ * {@code
+ *      public void onLoadMoreBackward() {
+ *          final int page = mAdapter.getBackwardPage();
+ *          if (page >= 0) loadPage(page); // then mAdapter.setPage(page, items)
+ *      }
+ *
+ *      public void onLoadMoreForward() {
+ *          final int page = mAdapter.getForwardPage();
+ *          if (page < 0) return; // all pages are loaded, possible if total count is set
+ *          loadPage(page);
+ *      }
+ * }
+ * </pre>
+ * If total count of items is known, set it by {@link #setTotalCount(int)}: the adapter reports it at once,
+ * not loaded positions are displayed as placeholders and swapped with items when their pages are set,
+ * so fast scroll and {@link RecyclerView#scrollToPosition(int)} can jump anywhere.
+ * Must be used on main thread.
+ *
+ * @param <E> The type of items
+ */
+public class PagedBindableAdapter<E> extends BindableAdapter<List<E>> implements LoadedRangeProvider {
+
+    /**
+     * Default max count of pages kept in memory
+     */
+    public static final int DEFAULT_MAX_RESIDENT_PAGES = 5;
+
+    private final PagedList<E> mPagedList;
+    private final int mMaxResidentPages;
+
+    /**
+     * Window of resident pages, empty if mFirstPage > mLastPage
+     */
+    private int mFirstPage = 0;
+    private int mLastPage = -1;
+
+    private int mLastBoundPosition;
+
+    /**
+     * Creates adapter with {@link PlaceholderItemDelegate} with default layout,
+     * keeping {@link #DEFAULT_MAX_RESIDENT_PAGES} pages in memory
+     *
+     * @param pageSize  the count of items in page
+     * @param delegates the delegates of items
+     */
+    public PagedBindableAdapter(int pageSize, AdapterDelegate<List<E>>... delegates) {
+        this(pageSize, DEFAULT_MAX_RESIDENT_PAGES, delegates);
+    }
+
+    /**
+     * Creates adapter with {@link PlaceholderItemDelegate} with default layout
+     *
+     * @param pageSize         the count of items in page
+     * @param maxResidentPages the max count of pages kept in memory, at least 2
+     * @param delegates        the delegates of items
+     */
+    public PagedBindableAdapter(int pageSize, int maxResidentPages, AdapterDelegate<List<E>>... delegates) {
+        this(pageSize, maxResidentPages, new PlaceholderItemDelegate<E>(), delegates);
+    }
+
+    /**
+     * Creates adapter
+     *
+     * @param pageSize            the count of items in page
+     * @param maxResidentPages    the max count of pages kept in memory, at least 2
+     * @param placeholderDelegate the delegate of placeholders, checked before other delegates
+     * @param delegates           the delegates of items
+     */
+    public PagedBindableAdapter(int pageSize, int maxResidentPages, @NonNull AdapterDelegate<List<E>> placeholderDelegate,
+                                AdapterDelegate<List<E>>... delegates) {
+        super(withPlaceholder(placeholderDelegate, delegates));
+        mPagedList = new PagedList<>(pageSize);
+        mMaxResidentPages = Math.max(2, maxResidentPages);
+        setItems(mPagedList);
+    }
+
+    private static <E> AdapterDelegate<List<E>>[] withPlaceholder(AdapterDelegate<List<E>> placeholderDelegate,
+                                                                 AdapterDelegate<List<E>>[] delegates) {
+        //noinspection unchecked
+        final AdapterDelegate<List<E>>[] all = new AdapterDelegate[delegates.length + 1];
+        all[0] = placeholderDelegate;
+        System.arraycopy(delegates, 0, all, 1, delegates.length);
+        return all;
+    }
+
+    /**
+     * @return the count of items in page
+     */
+    public int getPageSize() {
+        return mPagedList.getPageSize();
+    }
+
+    /**
+     * @return the count of pages, loaded or not
+     */
+    public int getPageCount() {
+        return mPagedList.getPageCount();
+    }
+
+    /**
+     * @param page the page index
+     * @return true if items of the page are in memory
+     */
+    public boolean isPageLoaded(int page) {
+        return mPagedList.isPageLoaded(page);
+    }
+
+    /**
+     * Get page to load when the user scrolls back. If the last bound position is far before
+     * the window of resident pages, for example after fast scroll, returns the page of that position,
+     * so the window is moved there.
+     *
+     * @return the page index or -1 if all pages before the window are loaded
+     */
+    public int getBackwardPage() {
+        if (mFirstPage > mLastPage) return getPageCount() > 0 ? getBoundPage() : -1;
+        final int boundPage = getBoundPage();
+        if (boundPage < mFirstPage - 1) return boundPage;
+        return mFirstPage - 1;
+    }
+
+    /**
+     * Get page to load when the user scrolls forward. If the last bound position is far after
+     * the window of resident pages, returns the page of that position. May return index of a new page,
+     * unless total count is set.
+     *
+     * @return the page index or -1 if total count is set and all pages after the window are loaded
+     */
+    public int getForwardPage() {
+        if (mFirstPage > mLastPage) return getPageCount() > 0 ? getBoundPage() : (mPagedList.isTotalCountKnown() ? -1 : 0);
+        final int boundPage = getBoundPage();
+        if (boundPage > mLastPage + 1 && !mPagedList.isPageLoaded(boundPage) && boundPage < getPageCount()) {
+            return boundPage;
+        }
+        if (mPagedList.isTotalCountKnown() && mLastPage + 1 >= getPageCount()) return -1;
+        return mLastPage + 1;
+    }
+
+    /**
+     * Set total count of items, if it is known before loading. Positions of not loaded items
+     * are displayed as placeholders. After that pages can not be appended, and each page
+     * must have exact count of items: page size or the rest for the last page.
+     *
+     * @param totalCount the total count of items
+     */
+    public void setTotalCount(int totalCount) {
+        final int oldCount = getItemCount();
+        final int lastPage = (totalCount + getPageSize() - 1) / getPageSize() - 1;
+        final boolean lastPageLoaded = mPagedList.isPageLoaded(lastPage);
+        mPagedList.setTotalCount(totalCount);
+        if (lastPageLoaded && !mPagedList.isPageLoaded(lastPage)) {
+            final int start = mPagedList.getPageStart(lastPage);
+            notifyItemRangeChanged(start, Math.min(oldCount, totalCount) - start);
+        }
+        if (totalCount > oldCount) {
+            notifyItemRangeInserted(oldCount, totalCount - oldCount);
+        } else if (totalCount < oldCount) {
+            notifyItemRangeRemoved(totalCount, oldCount - totalCount);
+        }
+        while (mFirstPage <= mLastPage && !mPagedList.isPageLoaded(mLastPage)) mLastPage--;
+        if (mFirstPage > mLastPage) {
+            mFirstPage = 0;
+            mLastPage = -1;
+        }
+    }
+
+    /**
+     * Add next page to the end of the list
+     *
+     * @param items the items of the page, must be full page if it is not the last one
+     * @throws IllegalArgumentException if total count is set
+     */
+    public void appendPage(@NonNull List<E> items) {
+        setPage(getPageCount(), items);
+    }
+
+    /**
+     * Set items of the page, loaded first time or reloaded after it was dropped.
+     * If the page is not adjacent to the window of resident pages, the window is moved to the page.
+     * If the window exceeds the limit, the farthest pages are dropped.
+     *
+     * @param page  the page index
+     * @param items the items of the page, only the last page can have less items than page size
+     */
+    public void setPage(int page, @NonNull List<E> items) {
+        final int oldCount = getItemCount();
+        final int oldPageCount = getPageCount();
+        final boolean wasLoaded = mPagedList.isPageLoaded(page);
+        final int oldPageItemCount = mPagedList.getPageItemCount(page);
+        mPagedList.setPage(page, items);
+        if (page < oldPageCount) {
+            final int start = mPagedList.getPageStart(page);
+            final int changed = Math.min(oldPageItemCount, items.size());
+            if (changed > 0) notifyItemRangeChanged(start, changed);
+            if (items.size() > oldPageItemCount) {
+                notifyItemRangeInserted(start + oldPageItemCount, items.size() - oldPageItemCount);
+            } else if (items.size() < oldPageItemCount) {
+                notifyItemRangeRemoved(start + items.size(), oldPageItemCount - items.size());
+            }
+        } else if (getItemCount() > oldCount) {
+            // new page, pages skipped before it are added as placeholders
+            notifyItemRangeInserted(oldCount, getItemCount() - oldCount);
+        }
+        if (!wasLoaded) extendWindow(page);
+        trimWindow(page);
+    }
+
+    /**
+     * Drop all pages and items
+     */
+    public void clear() {
+        mPagedList.clear();
+        mFirstPage = 0;
+        mLastPage = -1;
+        mLastBoundPosition = 0;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getLoadedStart() {
+        return mFirstPage > mLastPage ? 0 : mPagedList.getPageStart(mFirstPage);
+    }
+
+    @Override
+    public int getLoadedEnd() {
+        return mFirstPage > mLastPage ? 0
+                : mPagedList.getPageStart(mLastPage) + mPagedList.getPageItemCount(mLastPage);
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        mLastBoundPosition = position;
+        super.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List payloads) {
+        // partial rebinding moves the anchor as well
+        mLastBoundPosition = position;
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    private int getBoundPage() {
+        return Math.min(mLastBoundPosition / getPageSize(), Math.max(0, getPageCount() - 1));
+    }
+
+    private void extendWindow(int page) {
+        if (mFirstPage > mLastPage) {
+            mFirstPage = mLastPage = page;
+        } else if (page == mFirstPage - 1) {
+            mFirstPage = page;
+        } else if (page == mLastPage + 1) {
+            mLastPage = page;
+        } else {
+            // not adjacent page, move the window to it
+            while (mFirstPage <= mLastPage) dropPage(mFirstPage++);
+            mFirstPage = mLastPage = page;
+        }
+    }
+
+    private void trimWindow(int loadedPage) {
+        final int anchor = getBoundPage();
+        while (mLastPage - mFirstPage + 1 > mMaxResidentPages) {
+            final boolean dropFirst = loadedPage == mLastPage
+                    || (loadedPage != mFirstPage && anchor - mFirstPage >= mLastPage - anchor);
+            if (dropFirst) {
+                dropPage(mFirstPage++);
+            } else {
+                dropPage(mLastPage--);
+            }
+        }
+    }
+
+    private void dropPage(int page) {
+        if (!mPagedList.isPageLoaded(page)) return;
+        mPagedList.dropPage(page);
+        notifyItemRangeChanged(mPagedList.getPageStart(page), mPagedList.getPageItemCount(page));
+    }
+}
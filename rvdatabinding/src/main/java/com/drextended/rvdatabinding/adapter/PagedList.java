@@ -0,0 +1,151 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only list of items split into pages of the same size, only the last page can be smaller.
+ * Pages which are not loaded are kept as null items, so size of the list does not change when
+ * pages are dropped.
+ *
+ * @param <E> The type of items
+ */
+class PagedList<E> extends AbstractList<E> {
+
+    private final int mPageSize;
+
+    /**
+     * Pages by index, null if the page is not loaded
+     */
+    private final ArrayList<List<E>> mPages = new ArrayList<>();
+    private int mSize;
+    private boolean mTotalCountKnown;
+
+    PagedList(int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+        mPageSize = pageSize;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+        }
+        final List<E> page = mPages.get(index / mPageSize);
+        return page != null ? page.get(index % mPageSize) : null;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    int getPageSize() {
+        return mPageSize;
+    }
+
+    int getPageCount() {
+        return mPages.size();
+    }
+
+    boolean isPageLoaded(int page) {
+        return page >= 0 && page < mPages.size() && mPages.get(page) != null;
+    }
+
+    /**
+     * @return position of the first item of the page
+     */
+    int getPageStart(int page) {
+        return page * mPageSize;
+    }
+
+    /**
+     * @return count of items in the page, loaded or not
+     */
+    int getPageItemCount(int page) {
+        if (page < 0 || page >= mPages.size()) return 0;
+        return Math.min(mPageSize, mSize - page * mPageSize);
+    }
+
+    /**
+     * Set total count of items, all pages not loaded yet are kept as null items.
+     * After that pages can not be added and must have exact count of items.
+     * Loaded pages beyond the new count are removed.
+     */
+    void setTotalCount(int totalCount) {
+        if (totalCount < 0) throw new IllegalArgumentException("Total count must not be negative");
+        final int pageCount = (totalCount + mPageSize - 1) / mPageSize;
+        while (mPages.size() > pageCount) mPages.remove(mPages.size() - 1);
+        while (mPages.size() < pageCount) mPages.add(null);
+        final int last = pageCount - 1;
+        if (last >= 0 && mPages.get(last) != null && mPages.get(last).size() != totalCount - last * mPageSize) {
+            // the last page is cut or extended, keep it consistent by reloading
+            mPages.set(last, null);
+        }
+        mSize = totalCount;
+        mTotalCountKnown = true;
+    }
+
+    boolean isTotalCountKnown() {
+        return mTotalCountKnown;
+    }
+
+    /**
+     * Set items of the page. Pages between the last one and the new one are added as not loaded.
+     * Only the last page can have less items than page size.
+     */
+    void setPage(int page, List<E> items) {
+        final int count = items.size();
+        if (mTotalCountKnown) {
+            if (page < 0 || page >= mPages.size() || count != getPageItemCount(page)) {
+                throw new IllegalArgumentException("Page " + page + " must have " + getPageItemCount(page) + " items, has " + count);
+            }
+            mPages.set(page, items);
+            return;
+        }
+        final boolean last = page >= mPages.size() - 1;
+        if (count > mPageSize || (!last && count != mPageSize)) {
+            throw new IllegalArgumentException("Page " + page + " must have " + mPageSize + " items, has " + count);
+        }
+        if (page >= mPages.size() && mSize < mPages.size() * mPageSize) {
+            throw new IllegalStateException("Can not add page after incomplete page");
+        }
+        while (mPages.size() <= page) mPages.add(null);
+        mPages.set(page, items);
+        if (last) mSize = page * mPageSize + count;
+    }
+
+    /**
+     * Drop items of the page, keeping their positions
+     */
+    void dropPage(int page) {
+        mPages.set(page, null);
+    }
+
+    /**
+     * Drop all pages and the total count
+     */
+    @Override
+    public void clear() {
+        mPages.clear();
+        mSize = 0;
+        mTotalCountKnown = false;
+    }
+}
@@ -17,9 +17,7 @@
 package com.drextended.rvdatabinding.adapter;
 
 import android.support.annotation.NonNull;
-import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
-import android.support.v7.widget.StaggeredGridLayoutManager;
 
 /**
  * RecyclerView ScrollListener for implementing two-way lazy loading list (endless list)
@@ -27,6 +25,12 @@ import android.support.v7.widget.StaggeredGridLayoutManager;
 public class TwoWayLoadingScrollListener extends RecyclerView.OnScrollListener {
 
     private static final int DEFAULT_VISIBLE_THRESOLD = 2;
+
+    /**
+     * Default distance in items from the start of loaded range, after which in-flight backward request is cancelled
+     */
+    public static final int DEFAULT_BACKWARD_CANCEL_DISTANCE = 50;
+
     private final OnLoadMoreListener mMoreListener;
 
     private OnPositionChangeListener mPositionChangeListener;
@@ -34,6 +38,10 @@ public class TwoWayLoadingScrollListener extends RecyclerView.OnScrollListener {
     int firstVisibleItem, lastVisibleItem, oldFirstVisibleItem, oldLastVisibleItem, visibleItemCount, totalItemCount;
 
     private RecyclerView.LayoutManager mLayoutManager;
+    private LoadedRangeProvider mLoadedRangeProvider;
+    private final VisibleRangeTracker mVisibleRange = new VisibleRangeTracker();
+    private final LoadRequestTracker mRequests = new LoadRequestTracker();
+    private int mBackwardCancelDistance = DEFAULT_BACKWARD_CANCEL_DISTANCE;
 
     public interface OnLoadMoreListener {
         void onLoadMoreForward();
@@ -42,6 +50,25 @@ public class TwoWayLoadingScrollListener extends RecyclerView.OnScrollListener {
         boolean isLoadingBackward();
     }
 
+    /**
+     * Listener which receives a token for each loading request. Only one request per direction is in flight:
+     * the next one is fired after the current one is completed by {@link LoadRequest#complete()},
+     * so there are no duplicate requests while the adapter is not updated yet.
+     * {@link OnLoadMoreListener#onLoadMoreForward()} and {@link OnLoadMoreListener#onLoadMoreBackward()}
+     * are not called for this listener.
+     */
+    public interface OnLoadRequestListener extends OnLoadMoreListener {
+        void onLoadMoreForward(@NonNull LoadRequest request);
+        void onLoadMoreBackward(@NonNull LoadRequest request);
+
+        /**
+         * Called when in-flight backward request is cancelled as the user scrolled far forward
+         *
+         * @param request the cancelled request
+         */
+        void onLoadCancelled(@NonNull LoadRequest request);
+    }
+
     public interface OnPositionChangeListener {
         void onVisiblePositionChanged(int firstVisibleItem, int lastVisibleItem);
     }
@@ -61,6 +88,43 @@ public class TwoWayLoadingScrollListener extends RecyclerView.OnScrollListener {
         mVisibleThreshold = visibleThreshold;
     }
 
+    /**
+     * Set provider of loaded range for lists with placeholders of not loaded items,
+     * like {@link PagedBindableAdapter}. Loading starts when the ends of the loaded range are close,
+     * instead of the ends of the list, and backward loading starts only if there are not loaded items before.
+     *
+     * @param loadedRangeProvider the provider or null to use the ends of the list
+     */
+    public void setLoadedRangeProvider(LoadedRangeProvider loadedRangeProvider) {
+        mLoadedRangeProvider = loadedRangeProvider;
+    }
+
+    /**
+     * Set distance in items from the start of loaded range, after which in-flight backward request
+     * is cancelled, as its results are not needed anymore
+     *
+     * @param distance the distance in items
+     */
+    public void setBackwardCancelDistance(int distance) {
+        mBackwardCancelDistance = distance;
+    }
+
+    /**
+     * Reset loading state after the data set is reset: in-flight requests are cancelled
+     * and their results will be discarded by {@link LoadRequest#complete()}
+     */
+    public void resetRequests() {
+        mRequests.reset();
+    }
+
+    /**
+     * @param direction {@link LoadRequest#DIRECTION_FORWARD} or {@link LoadRequest#DIRECTION_BACKWARD}
+     * @return the in-flight loading request or null
+     */
+    public LoadRequest getInFlightRequest(int direction) {
+        return mRequests.getInFlight(direction);
+    }
+
     @Override
     public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
         super.onScrolled(recyclerView, dx, dy);
@@ -70,38 +134,64 @@ public class TwoWayLoadingScrollListener extends RecyclerView.OnScrollListener {
         getLayoutManager(recyclerView);
         if (mLayoutManager == null) return;
 
-        visibleItemCount = mLayoutManager.getChildCount();
+        mVisibleRange.update(mLayoutManager);
+        visibleItemCount = mVisibleRange.getVisibleCount();
         totalItemCount = mLayoutManager.getItemCount();
-        firstVisibleItem = getFirstVisibleItemPosition();
-        lastVisibleItem = firstVisibleItem + visibleItemCount - 1;
+        firstVisibleItem = mVisibleRange.getFirstVisible();
+        lastVisibleItem = mVisibleRange.getLastVisible();
+        if (firstVisibleItem == RecyclerView.NO_POSITION) return;
         if (mPositionChangeListener != null && (firstVisibleItem != oldFirstVisibleItem || lastVisibleItem != oldLastVisibleItem)) {
             mPositionChangeListener.onVisiblePositionChanged(firstVisibleItem, lastVisibleItem);
             oldFirstVisibleItem = firstVisibleItem;
             oldLastVisibleItem = lastVisibleItem;
         }
 
+        final int loadedStart = mLoadedRangeProvider != null ? mLoadedRangeProvider.getLoadedStart() : 0;
+        final int loadedEnd = mLoadedRangeProvider != null ? mLoadedRangeProvider.getLoadedEnd() : totalItemCount;
+
+        final boolean withTokens = mMoreListener instanceof OnLoadRequestListener;
+        if (!withTokens) finishLegacyRequests();
+
+        if (firstVisibleItem > loadedStart + mBackwardCancelDistance) {
+            // flung far forward, items before are not needed soon
+            final LoadRequest cancelled = mRequests.cancel(LoadRequest.DIRECTION_BACKWARD);
+            if (cancelled != null && withTokens) ((OnLoadRequestListener) mMoreListener).onLoadCancelled(cancelled);
+        }
+
         if (!mMoreListener.isLoadingBackward()
-                && firstVisibleItem <= mVisibleThreshold){
+                && mRequests.getInFlight(LoadRequest.DIRECTION_BACKWARD) == null
+                && (mLoadedRangeProvider == null || loadedStart > 0)
+                && firstVisibleItem <= loadedStart + mVisibleThreshold){
             // Start has been reached
-            mMoreListener.onLoadMoreBackward();
-
+            final LoadRequest request = mRequests.start(LoadRequest.DIRECTION_BACKWARD);
+            if (withTokens) {
+                ((OnLoadRequestListener) mMoreListener).onLoadMoreBackward(request);
+            } else {
+                mMoreListener.onLoadMoreBackward();
+            }
         }
         if (!mMoreListener.isLoadingForward()
-                && lastVisibleItem >= (totalItemCount - mVisibleThreshold)) {
+                && mRequests.getInFlight(LoadRequest.DIRECTION_FORWARD) == null
+                && lastVisibleItem >= (loadedEnd - mVisibleThreshold)) {
 
             // End has been reached
-            mMoreListener.onLoadMoreForward();
+            final LoadRequest request = mRequests.start(LoadRequest.DIRECTION_FORWARD);
+            if (withTokens) {
+                ((OnLoadRequestListener) mMoreListener).onLoadMoreForward(request);
+            } else {
+                mMoreListener.onLoadMoreForward();
+            }
         }
     }
 
-    private int getFirstVisibleItemPosition() {
-        int pos = 0;
-        if (mLayoutManager instanceof LinearLayoutManager) {
-            pos = ((LinearLayoutManager) mLayoutManager).findFirstVisibleItemPosition();
-        } else if (mLayoutManager instanceof StaggeredGridLayoutManager) {
-            pos = ((StaggeredGridLayoutManager) mLayoutManager).findFirstVisibleItemPositions(null)[0];
-        }
-        return pos;
+    /**
+     * Listeners without tokens report completion only by loading flags
+     */
+    private void finishLegacyRequests() {
+        final LoadRequest forward = mRequests.getInFlight(LoadRequest.DIRECTION_FORWARD);
+        if (forward != null && !mMoreListener.isLoadingForward()) forward.complete();
+        final LoadRequest backward = mRequests.getInFlight(LoadRequest.DIRECTION_BACKWARD);
+        if (backward != null && !mMoreListener.isLoadingBackward()) backward.complete();
     }
 
     private void getLayoutManager(RecyclerView _recyclerView) {
@@ -0,0 +1,110 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Cache of resolved view types by item position. Filled lazily and kept in sync
+ * with the adapter by observing its notifications: inserted and removed ranges shift
+ * cached positions, changed and moved ranges are invalidated.
+ */
+class ViewTypeCache extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Returned by {@link #get(int)} if view type for the position is not resolved yet
+     */
+    static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private int[] mViewTypes = new int[0];
+    private int mSize;
+
+    /**
+     * Get cached view type
+     *
+     * @param position the item position
+     * @return the cached view type or {@link #UNKNOWN}
+     */
+    int get(int position) {
+        return position < mSize ? mViewTypes[position] : UNKNOWN;
+    }
+
+    /**
+     * Put resolved view type
+     *
+     * @param position the item position
+     * @param viewType the view type of item
+     */
+    void put(int position, int viewType) {
+        if (position >= mSize) resize(position + 1);
+        mViewTypes[position] = viewType;
+    }
+
+    /**
+     * Invalidate all cached view types
+     */
+    void clear() {
+        mSize = 0;
+    }
+
+    @Override
+    public void onChanged() {
+        clear();
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        invalidate(positionStart, positionStart + itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (positionStart >= mSize) return;
+        final int size = mSize;
+        resize(size + itemCount);
+        System.arraycopy(mViewTypes, positionStart, mViewTypes, positionStart + itemCount, size - positionStart);
+        Arrays.fill(mViewTypes, positionStart, positionStart + itemCount, UNKNOWN);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (positionStart >= mSize) return;
+        final int end = Math.min(positionStart + itemCount, mSize);
+        System.arraycopy(mViewTypes, end, mViewTypes, positionStart, mSize - end);
+        mSize -= end - positionStart;
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        invalidate(Math.min(fromPosition, toPosition), Math.max(fromPosition, toPosition) + itemCount);
+    }
+
+    private void invalidate(int start, int end) {
+        if (start >= mSize) return;
+        Arrays.fill(mViewTypes, start, Math.min(end, mSize), UNKNOWN);
+    }
+
+    private void resize(int size) {
+        if (size > mViewTypes.length) {
+            mViewTypes = Arrays.copyOf(mViewTypes, Math.max(size, mViewTypes.length * 2));
+        }
+        if (size > mSize) Arrays.fill(mViewTypes, mSize, size, UNKNOWN);
+        mSize = size;
+    }
+}
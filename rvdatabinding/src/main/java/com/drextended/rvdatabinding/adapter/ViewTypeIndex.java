@@ -0,0 +1,105 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import com.drextended.rvdatabinding.delegate.ModelClassHolder;
+import com.drextended.rvdatabinding.delegate.PlaceholderItemDelegate;
+import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
+
+import java.util.HashMap;
+
+/**
+ * Index of view types by the class of item. Each concrete class of item is resolved
+ * by scanning the delegates only once, next lookups for the same class take constant time.
+ * Resolved view type is cached only if it can not depend on item position or content,
+ * i.e. if all delegates checked before the matched one are {@link ModelClassHolder}s
+ * or {@link PlaceholderItemDelegate}s, which match only null items. Null items are not indexed,
+ * they are resolved by scanning the delegates.
+ */
+class ViewTypeIndex {
+
+    /**
+     * Returned by {@link #get(Class)} if view type for the class is not resolved yet
+     */
+    static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * Returned by {@link #get(Class)} if view type for the class can not be resolved by class only
+     */
+    static final int NOT_INDEXED = Integer.MIN_VALUE + 1;
+
+    private final HashMap<Class<?>, Integer> mViewTypes = new HashMap<>();
+    private final int mDelegateCount;
+    private final int mClassKeyedCount;
+    private final boolean mEnabled;
+
+    /**
+     * Creates index for delegates registered in this order in an empty AdapterDelegatesManager,
+     * so the view type of each delegate is equal to its index.
+     *
+     * @param delegates the registered delegates
+     */
+    ViewTypeIndex(AdapterDelegate<?>[] delegates) {
+        int classKeyedCount = 0;
+        boolean enabled = false;
+        for (AdapterDelegate<?> delegate : delegates) {
+            if (delegate instanceof PlaceholderItemDelegate) {
+                // never matches items of any class
+                classKeyedCount++;
+                continue;
+            }
+            if (!(delegate instanceof ModelClassHolder)
+                    || ((ModelClassHolder) delegate).getModelClass() == null) break;
+            classKeyedCount++;
+            enabled = true;
+        }
+        mDelegateCount = delegates.length;
+        mClassKeyedCount = classKeyedCount;
+        mEnabled = enabled;
+    }
+
+    /**
+     * @return true if at least one view type can be resolved by the class of item
+     */
+    boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Get cached view type for the class of item
+     *
+     * @param itemClass the class of item
+     * @return the cached view type, {@link #UNKNOWN} if the class is not resolved yet
+     * or {@link #NOT_INDEXED} if the view type must be resolved by scanning delegates
+     */
+    int get(Class<?> itemClass) {
+        final Integer viewType = mViewTypes.get(itemClass);
+        return viewType != null ? viewType : UNKNOWN;
+    }
+
+    /**
+     * Put the view type resolved by scanning delegates for an item of the class
+     *
+     * @param itemClass the class of item
+     * @param viewType  the resolved view type
+     */
+    void put(Class<?> itemClass, int viewType) {
+        final boolean byClass = mClassKeyedCount == mDelegateCount
+                || (viewType >= 0 && viewType < mClassKeyedCount);
+        mViewTypes.put(itemClass, byClass ? viewType : NOT_INDEXED);
+    }
+}
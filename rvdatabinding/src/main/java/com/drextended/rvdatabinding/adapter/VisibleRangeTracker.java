@@ -0,0 +1,136 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.view.View;
+
+import static android.support.v7.widget.RecyclerView.NO_POSITION;
+
+/**
+ * Computes the range of visible adapter positions for any layout manager without allocations.
+ * For {@link StaggeredGridLayoutManager} the range covers all spans. Positions are ordered
+ * (first is not greater than last) for reverse layouts as well.
+ */
+public class VisibleRangeTracker {
+
+    private int[] mSpanPositions;
+    private int mFirstVisible = NO_POSITION;
+    private int mLastVisible = NO_POSITION;
+    private boolean mHorizontal;
+    private boolean mReverse;
+
+    /**
+     * Update visible range by the current layout
+     *
+     * @param layoutManager the layout manager of RecyclerView
+     * @return true if the range is changed
+     */
+    public boolean update(RecyclerView.LayoutManager layoutManager) {
+        int first = NO_POSITION;
+        int last = NO_POSITION;
+        if (layoutManager instanceof LinearLayoutManager) {
+            final LinearLayoutManager linear = (LinearLayoutManager) layoutManager;
+            mHorizontal = linear.getOrientation() == LinearLayoutManager.HORIZONTAL;
+            mReverse = linear.getReverseLayout();
+            final int a = linear.findFirstVisibleItemPosition();
+            final int b = linear.findLastVisibleItemPosition();
+            if (a != NO_POSITION && b != NO_POSITION) {
+                first = Math.min(a, b);
+                last = Math.max(a, b);
+            }
+        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+            final StaggeredGridLayoutManager staggered = (StaggeredGridLayoutManager) layoutManager;
+            mHorizontal = staggered.getOrientation() == StaggeredGridLayoutManager.HORIZONTAL;
+            mReverse = staggered.getReverseLayout();
+            final int spanCount = staggered.getSpanCount();
+            if (mSpanPositions == null || mSpanPositions.length != spanCount) {
+                mSpanPositions = new int[spanCount];
+            }
+            staggered.findFirstVisibleItemPositions(mSpanPositions);
+            first = min(mSpanPositions, NO_POSITION);
+            last = max(mSpanPositions, NO_POSITION);
+            staggered.findLastVisibleItemPositions(mSpanPositions);
+            first = min(mSpanPositions, first);
+            last = max(mSpanPositions, last);
+        } else if (layoutManager != null) {
+            mHorizontal = layoutManager.canScrollHorizontally() && !layoutManager.canScrollVertically();
+            mReverse = false;
+            for (int i = 0, count = layoutManager.getChildCount(); i < count; i++) {
+                final View child = layoutManager.getChildAt(i);
+                final int position = child != null ? layoutManager.getPosition(child) : NO_POSITION;
+                if (position == NO_POSITION) continue;
+                if (first == NO_POSITION || position < first) first = position;
+                if (position > last) last = position;
+            }
+        }
+        final boolean changed = first != mFirstVisible || last != mLastVisible;
+        mFirstVisible = first;
+        mLastVisible = last;
+        return changed;
+    }
+
+    /**
+     * @return the least visible adapter position or {@link RecyclerView#NO_POSITION}
+     */
+    public int getFirstVisible() {
+        return mFirstVisible;
+    }
+
+    /**
+     * @return the greatest visible adapter position or {@link RecyclerView#NO_POSITION}
+     */
+    public int getLastVisible() {
+        return mLastVisible;
+    }
+
+    /**
+     * @return the count of positions in visible range
+     */
+    public int getVisibleCount() {
+        return mFirstVisible == NO_POSITION ? 0 : mLastVisible - mFirstVisible + 1;
+    }
+
+    /**
+     * Convert scroll delta to the delta along adapter positions, considering orientation
+     * and reverse layout of the last updated layout manager
+     *
+     * @param dx the horizontal scroll delta
+     * @param dy the vertical scroll delta
+     * @return positive value if the list is scrolled towards greater positions, negative if towards lesser ones
+     */
+    public int toForwardDelta(int dx, int dy) {
+        final int delta = mHorizontal ? dx : dy;
+        return mReverse ? -delta : delta;
+    }
+
+    private static int min(int[] positions, int min) {
+        for (int position : positions) {
+            if (position != NO_POSITION && (min == NO_POSITION || position < min)) min = position;
+        }
+        return min;
+    }
+
+    private static int max(int[] positions, int max) {
+        for (int position : positions) {
+            if (position > max) max = position;
+        }
+        return max;
+    }
+}
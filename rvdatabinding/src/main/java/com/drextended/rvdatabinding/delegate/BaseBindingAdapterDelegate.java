@@ -17,13 +17,17 @@
 package com.drextended.rvdatabinding.delegate;
 
 import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.view.ViewGroup;
 
 import com.drextended.rvdatabinding.adapter.BindingHolder;
 import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
 
+import java.util.List;
+
 /**
  * Base AdapterDelegate to use with data binding
  * Based on AdapterDelegates Library by Hannes Dorfmann https://github.com/sockeqwe/AdapterDelegates
@@ -33,18 +37,225 @@ import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
  */
 public abstract class BaseBindingAdapterDelegate<T, VB extends ViewDataBinding> implements AdapterDelegate<T> {
 
+    /**
+     * Bindings are executed once right after binding item. Default policy.
+     */
+    public static final int EXECUTE_IMMEDIATE = 0;
+
+    /**
+     * Bindings are not executed on binding item, data binding executes them itself on the next frame.
+     * Use only if size of items does not depend on bound data.
+     */
+    public static final int EXECUTE_NEXT_FRAME = 1;
+
+    /**
+     * Bindings of all items bound during layout pass are executed together right before drawing.
+     * Use only if size of items does not depend on bound data. Works for delegates passed to
+     * {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter} constructor, otherwise bindings are executed immediately.
+     */
+    public static final int EXECUTE_BATCHED = 2;
+
+    /**
+     * Latencies of this delegate, null if metrics are disabled
+     */
+    private DelegateMetrics mMetrics;
+
+    private int mExecutionPolicy = EXECUTE_IMMEDIATE;
+
+    /**
+     * Bindings waiting for execution with {@link #EXECUTE_BATCHED} policy
+     */
+    private final BindingBatch mBindingBatch = new BindingBatch();
 
     @NonNull
     @Override
     public abstract BindingHolder<VB> onCreateViewHolder(ViewGroup parent);
 
+    /**
+     * Creates view holder for the binding inflated in advance, see
+     * {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter#preInflate(android.content.Context, RecyclerView.RecycledViewPool, int)}.
+     * Override it if view holder needs additional setup after inflation.
+     *
+     * @param binding the binding inflated from {@link #getItemLayoutResId()}
+     * @return the view holder
+     */
+    @NonNull
+    public BindingHolder<VB> onCreateViewHolder(@NonNull VB binding) {
+        return new BindingHolder<>(binding);
+    }
+
+    /**
+     * Get layout of items. Used for inflating bindings in advance.
+     *
+     * @return the layout resource ID or 0 if the layout is unknown, so bindings can not be inflated in advance
+     */
+    @LayoutRes
+    public int getItemLayoutResId() {
+        return 0;
+    }
+
+    /**
+     * Get view type which is stable across adapters, so view holders can be shared between
+     * RecyclerViews through one {@link RecyclerView.RecycledViewPool}.
+     * Delegates with the same global view type must create interchangeable view holders,
+     * i.e. fully bind them in {@link #onBindViewHolder(Object, int, BindingHolder)}.
+     * By default returns 0, so the adapter assigns view type private to it, which is never shared.
+     *
+     * @return the positive global view type, for example the layout resource ID, or 0
+     */
+    public int getGlobalViewType() {
+        return 0;
+    }
+
+    /**
+     * Enable or disable measuring latencies of creating and binding view holders by this delegate.
+     * View holder creation is measured by {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter}.
+     * Disabling drops collected metrics. Disabled by default.
+     *
+     * @param enabled true to measure latencies
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (!enabled) {
+            mMetrics = null;
+        } else if (mMetrics == null) {
+            mMetrics = new DelegateMetrics();
+        }
+    }
+
+    /**
+     * Get latencies of this delegate, see {@link #setMetricsEnabled(boolean)}
+     *
+     * @return the metrics or null if metrics are disabled
+     */
+    @Nullable
+    public DelegateMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Set when pending bindings are executed after binding item. Implementations of
+     * {@link #onBindViewHolder(Object, int, BindingHolder)} must not execute them themselves,
+     * so each binding is evaluated once per bind.
+     *
+     * @param executionPolicy one of {@link #EXECUTE_IMMEDIATE}, {@link #EXECUTE_NEXT_FRAME}, {@link #EXECUTE_BATCHED}
+     */
+    public void setExecutionPolicy(int executionPolicy) {
+        mExecutionPolicy = executionPolicy;
+    }
+
+    /**
+     * @return the policy of executing pending bindings, see {@link #setExecutionPolicy(int)}
+     */
+    public int getExecutionPolicy() {
+        return mExecutionPolicy;
+    }
+
     @Override
     public void onBindViewHolder(@NonNull T items, int position, @NonNull RecyclerView.ViewHolder holder) {
         //noinspection unchecked
         final BindingHolder<VB> bindingHolder = (BindingHolder<VB>) holder;
+        final DelegateMetrics metrics = mMetrics;
+        if (metrics == null) {
+            onBindViewHolder(items, position, bindingHolder);
+            executePendingBindings(bindingHolder.getBinding());
+            return;
+        }
+        final long start = System.nanoTime();
         onBindViewHolder(items, position, bindingHolder);
-        bindingHolder.getBinding().executePendingBindings();
+        final long bound = System.nanoTime();
+        executePendingBindings(bindingHolder.getBinding());
+        metrics.getBindLatency().record(bound - start);
+        if (mExecutionPolicy == EXECUTE_IMMEDIATE) {
+            metrics.getExecutePendingBindingsLatency().record(System.nanoTime() - bound);
+        }
+    }
+
+    private void executePendingBindings(VB binding) {
+        switch (mExecutionPolicy) {
+            case EXECUTE_NEXT_FRAME:
+                break;
+            case EXECUTE_BATCHED:
+                mBindingBatch.add(binding);
+                break;
+            case EXECUTE_IMMEDIATE:
+            default:
+                binding.executePendingBindings();
+                break;
+        }
+    }
+
+    /**
+     * Called by {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter} when it is attached to RecyclerView.
+     * Call super if overridden.
+     *
+     * @param recyclerView the RecyclerView
+     */
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        mBindingBatch.onAttachedToRecyclerView(recyclerView);
+    }
+
+    /**
+     * Called by {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter} when it is detached from RecyclerView.
+     * Call super if overridden.
+     *
+     * @param recyclerView the RecyclerView
+     */
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        mBindingBatch.onDetachedFromRecyclerView(recyclerView);
     }
 
+    /**
+     * Called by {@link com.drextended.rvdatabinding.adapter.BaseBindableAdapter} when the view holder
+     * created by this delegate is recycled
+     *
+     * @param holder the view holder
+     */
+    public void onViewRecycled(@NonNull BindingHolder<VB> holder) {
+    }
+
+    /**
+     * Bind item to the holder. Pending bindings are executed after that according to
+     * {@link #setExecutionPolicy(int)}, so do not execute them here.
+     */
     public abstract void onBindViewHolder(@NonNull T items, int position, @NonNull BindingHolder<VB> holder);
+
+    /**
+     * Called by adapter for partial rebinding when item is changed with payloads.
+     *
+     * @param items    the data source
+     * @param position the item position in the data source
+     * @param holder   the view holder
+     * @param payloads the non-empty list of payloads
+     */
+    public void onBindViewHolder(@NonNull T items, int position, @NonNull RecyclerView.ViewHolder holder, @NonNull List<Object> payloads) {
+        //noinspection unchecked
+        final BindingHolder<VB> bindingHolder = (BindingHolder<VB>) holder;
+        final DelegateMetrics metrics = mMetrics;
+        if (metrics == null) {
+            onBindViewHolder(items, position, bindingHolder, payloads);
+            executePendingBindings(bindingHolder.getBinding());
+            return;
+        }
+        final long start = System.nanoTime();
+        onBindViewHolder(items, position, bindingHolder, payloads);
+        final long bound = System.nanoTime();
+        executePendingBindings(bindingHolder.getBinding());
+        metrics.getBindLatency().record(bound - start);
+        if (mExecutionPolicy == EXECUTE_IMMEDIATE) {
+            metrics.getExecutePendingBindingsLatency().record(System.nanoTime() - bound);
+        }
+    }
+
+    /**
+     * Override to update only changed part of the binding, see {@link BindingPayload}.
+     * By default the item is fully rebound.
+     *
+     * @param items    the data source
+     * @param position the item position in the data source
+     * @param holder   the view holder
+     * @param payloads the non-empty list of payloads
+     */
+    public void onBindViewHolder(@NonNull T items, int position, @NonNull BindingHolder<VB> holder, @NonNull List<Object> payloads) {
+        onBindViewHolder(items, position, holder);
+    }
 }
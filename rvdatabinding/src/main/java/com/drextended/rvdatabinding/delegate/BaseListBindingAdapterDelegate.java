@@ -31,8 +31,28 @@ import static android.support.v7.widget.RecyclerView.NO_ID;
  */
 public abstract class BaseListBindingAdapterDelegate<T, VB extends ViewDataBinding> extends BaseBindingAdapterDelegate<List<T>, VB> implements IdHolder<List<T>> {
 
+    /**
+     * Get item id. By default returns id of items implementing {@link Identifiable},
+     * otherwise {@link android.support.v7.widget.RecyclerView#NO_ID}.
+     *
+     * @param items    data source
+     * @param position item position in the data source
+     * @return stable item id
+     */
     @Override
     public long getItemId(final List<T> items, final int position) {
-        return NO_ID;
+        final T item = items.get(position);
+        return item instanceof Identifiable ? ((Identifiable) item).getId() : NO_ID;
+    }
+
+    /**
+     * Check whether the delegate provides stable ids for all its items.
+     * If all delegates of adapter provide stable ids, stable ids are enabled for the adapter.
+     * Returns false by default, override it together with {@link #getItemId(List, int)}.
+     *
+     * @return true if the delegate provides stable ids
+     */
+    public boolean hasStableIds() {
+        return false;
     }
 }
@@ -0,0 +1,114 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+import android.databinding.ViewDataBinding;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+
+/**
+ * Collects bindings bound during layout pass and executes them together right before drawing,
+ * see {@link BaseBindingAdapterDelegate#EXECUTE_BATCHED}. The pre-draw listener is registered on
+ * the RecyclerView the adapter is attached to. If the RecyclerView is not drawn, the batch is executed
+ * by the next message on main thread. If the adapter is not attached, bindings are executed immediately.
+ * Used on main thread only.
+ */
+final class BindingBatch implements ViewTreeObserver.OnPreDrawListener, Runnable {
+
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+
+    private final ArrayList<ViewDataBinding> mBindings = new ArrayList<>();
+
+    /**
+     * RecyclerViews the adapter is attached to
+     */
+    private final ArrayList<RecyclerView> mRecyclerViews = new ArrayList<>(1);
+
+    /**
+     * The RecyclerView whose tree observer is listened, null if the batch is empty
+     */
+    private RecyclerView mObservedView;
+    private ViewTreeObserver mObserver;
+
+    void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        if (!mRecyclerViews.contains(recyclerView)) mRecyclerViews.add(recyclerView);
+    }
+
+    void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        mRecyclerViews.remove(recyclerView);
+        if (recyclerView == mObservedView) cancel();
+    }
+
+    void add(ViewDataBinding binding) {
+        if (mRecyclerViews.isEmpty()) {
+            binding.executePendingBindings();
+            return;
+        }
+        mBindings.add(binding);
+        if (mObservedView != null) return;
+        mObservedView = mRecyclerViews.get(0);
+        // keep the observer, as the one of detached view is replaced when it is attached
+        mObserver = mObservedView.getViewTreeObserver();
+        mObserver.addOnPreDrawListener(this);
+        sHandler.post(this);
+    }
+
+    /**
+     * Stop listening and drop collected bindings. Data binding executes them itself on the next frame.
+     */
+    void cancel() {
+        if (mObservedView == null) return;
+        removeListener();
+        mBindings.clear();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        execute();
+        return true;
+    }
+
+    @Override
+    public void run() {
+        execute();
+    }
+
+    private void execute() {
+        if (mObservedView == null) return;
+        removeListener();
+        for (int i = 0, size = mBindings.size(); i < size; i++) {
+            mBindings.get(i).executePendingBindings();
+        }
+        mBindings.clear();
+    }
+
+    private void removeListener() {
+        if (mObserver.isAlive()) {
+            mObserver.removeOnPreDrawListener(this);
+        } else {
+            // merged into the window observer when the RecyclerView was attached
+            mObservedView.getViewTreeObserver().removeOnPreDrawListener(this);
+        }
+        mObserver = null;
+        mObservedView = null;
+        sHandler.removeCallbacks(this);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.delegate;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Payload for partial rebinding of item. Holds ids of changed binding variables or
+ * properties of observable model (BR ids).
+ * Sample:
+ * <pre>
+ * {@code
+ *      adapter.notifyItemChanged(position, BindingPayload.of(BR.liked));
+ * }
+ * </pre>
+ */
+public final class BindingPayload {
+
+    private final int[] mVariableIds;
+
+    private BindingPayload(int[] variableIds) {
+        mVariableIds = variableIds;
+    }
+
+    /**
+     * Creates payload with ids of changed variables
+     *
+     * @param variableIds the BR ids of changed variables or properties
+     * @return the payload
+     */
+    public static BindingPayload of(int... variableIds) {
+        return new BindingPayload(variableIds);
+    }
+
+    /**
+     * @return the BR ids of changed variables or properties
+     */
+    @NonNull
+    public int[] getVariableIds() {
+        return mVariableIds;
+    }
+
+    /**
+     * Check whether the variable is changed
+     *
+     * @param variableId the BR id of variable or property
+     * @return true if the variable is changed
+     */
+    public boolean contains(int variableId) {
+        for (int id : mVariableIds) {
+            if (id == variableId) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Merges all payloads passed to bind into one.
+     *
+     * @param payloads the payloads from {@link android.support.v7.widget.RecyclerView.Adapter#onBindViewHolder(android.support.v7.widget.RecyclerView.ViewHolder, int, List)}
+     * @return merged payload or null if payloads are empty or there is any payload of unknown type,
+     * so item must be fully rebound.
+     */
+    @Nullable
+    public static BindingPayload merge(@NonNull List<Object> payloads) {
+        final int size = payloads.size();
+        if (size == 0) return null;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final Object payload = payloads.get(i);
+            if (!(payload instanceof BindingPayload)) return null;
+            count += ((BindingPayload) payload).mVariableIds.length;
+        }
+        if (size == 1) return (BindingPayload) payloads.get(0);
+        final int[] variableIds = new int[count];
+        int merged = 0;
+        for (int i = 0; i < size; i++) {
+            for (int id : ((BindingPayload) payloads.get(i)).mVariableIds) {
+                boolean duplicate = false;
+                for (int j = 0; j < merged; j++) {
+                    if (variableIds[j] == id) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) variableIds[merged++] = id;
+            }
+        }
+        return new BindingPayload(merged == count ? variableIds : Arrays.copyOf(variableIds, merged));
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+import android.content.Context;
+import android.databinding.ViewDataBinding;
+import android.os.Parcelable;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.drextended.rvdatabinding.BR;
+import com.drextended.rvdatabinding.ListConfig;
+import com.drextended.rvdatabinding.R;
+import com.drextended.rvdatabinding.adapter.BindableAdapter;
+import com.drextended.rvdatabinding.adapter.BindingHolder;
+import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
+
+import java.util.List;
+
+import static android.support.v7.widget.RecyclerView.NO_ID;
+
+/**
+ * Delegate for items displayed as nested horizontal list, like carousels in a feed.
+ * All nested lists created by the delegate share one {@link RecyclerView.RecycledViewPool},
+ * so their items are inflated only until the pool is warmed up. Scroll position of nested list
+ * is saved by the stable id of the item (see {@link #getItemId(List, int)}) and restored
+ * when the item is bound again. Only {@link #DEFAULT_MAX_SCROLL_STATES} recently used scroll positions are kept,
+ * see {@link #setMaxScrollStates(int)}.
+ *
+ * @param <T> The type of the data source
+ * @param <I> The type of items of nested lists
+ */
+public class CarouselItemDelegate<T, I> extends ModelItemDelegate<T> {
+
+    /**
+     * Default max count of saved scroll positions of nested lists
+     */
+    public static final int DEFAULT_MAX_SCROLL_STATES = 100;
+
+    private final ItemsProvider<T, I> mItemsProvider;
+    private final AdapterDelegate<List<I>>[] mItemDelegates;
+    private final int mRecyclerViewId;
+    private LruCache<Long, Parcelable> mScrollStates = new LruCache<>(DEFAULT_MAX_SCROLL_STATES);
+    private RecyclerView.RecycledViewPool mRecycledViewPool = new RecyclerView.RecycledViewPool();
+    private ListConfig.LayoutManagerProvider mLayoutManagerProvider =
+            new ListConfig.SimpleLinearLayoutManagerProvider(LinearLayoutManager.HORIZONTAL);
+    private int mInitialItemCount;
+    private boolean mPreInflated;
+
+    /**
+     * Creates delegate with default layout which is horizontal RecyclerView
+     *
+     * @param modelClass    the class of items displayed as nested lists
+     * @param itemsProvider the provider of nested items
+     * @param itemDelegates the delegates of nested items
+     */
+    public CarouselItemDelegate(@NonNull Class<? extends T> modelClass, @NonNull ItemsProvider<T, I> itemsProvider,
+                                AdapterDelegate<List<I>>... itemDelegates) {
+        this(modelClass, R.layout.item_carousel, BR.model, View.NO_ID, itemsProvider, itemDelegates);
+    }
+
+    /**
+     * Creates delegate
+     *
+     * @param modelClass      the class of items displayed as nested lists
+     * @param itemLayoutResId the layout of items containing RecyclerView
+     * @param modelId         the BR id of model variable in the layout
+     * @param recyclerViewId  the id of RecyclerView in the layout, ignored if it is the root of layout
+     * @param itemsProvider   the provider of nested items
+     * @param itemDelegates   the delegates of nested items
+     */
+    public CarouselItemDelegate(@NonNull Class<? extends T> modelClass, @LayoutRes int itemLayoutResId, int modelId,
+                                @IdRes int recyclerViewId, @NonNull ItemsProvider<T, I> itemsProvider,
+                                AdapterDelegate<List<I>>... itemDelegates) {
+        super(modelClass, itemLayoutResId, modelId);
+        mRecyclerViewId = recyclerViewId;
+        mItemsProvider = itemsProvider;
+        mItemDelegates = itemDelegates;
+    }
+
+    /**
+     * Set pool shared by nested lists. By default each delegate has its own pool.
+     * Must be set before view holders are created.
+     *
+     * @param recycledViewPool the pool
+     */
+    public void setRecycledViewPool(@NonNull RecyclerView.RecycledViewPool recycledViewPool) {
+        mRecycledViewPool = recycledViewPool;
+    }
+
+    /**
+     * @return the pool shared by nested lists
+     */
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return mRecycledViewPool;
+    }
+
+    /**
+     * Set provider of layout managers for nested lists. Horizontal {@link LinearLayoutManager} by default.
+     * Must be set before view holders are created.
+     *
+     * @param layoutManagerProvider the provider
+     */
+    public void setLayoutManagerProvider(@NonNull ListConfig.LayoutManagerProvider layoutManagerProvider) {
+        mLayoutManagerProvider = layoutManagerProvider;
+    }
+
+    /**
+     * Set count of nested items visible initially. When the first nested list is created,
+     * this count of view holders for each nested view type is inflated in advance into the shared pool.
+     * Must be set before view holders are created.
+     *
+     * @param initialItemCount the count of nested items
+     */
+    public void setInitialItemCount(int initialItemCount) {
+        mInitialItemCount = initialItemCount;
+    }
+
+    /**
+     * Set max count of saved scroll positions of nested lists, least recently used ones are dropped.
+     * Drops saved scroll positions.
+     *
+     * @param maxScrollStates the max count, {@link #DEFAULT_MAX_SCROLL_STATES} by default
+     */
+    public void setMaxScrollStates(int maxScrollStates) {
+        mScrollStates = new LruCache<>(maxScrollStates);
+    }
+
+    @NonNull
+    @Override
+    public BindingHolder<ViewDataBinding> onCreateViewHolder(@NonNull ViewDataBinding binding) {
+        final View root = binding.getRoot();
+        final RecyclerView recyclerView = root instanceof RecyclerView
+                ? (RecyclerView) root : (RecyclerView) root.findViewById(mRecyclerViewId);
+        final Context context = recyclerView.getContext();
+        final BindableAdapter<List<I>> adapter = new BindableAdapter<>(mItemDelegates);
+        if (mInitialItemCount > 0 && !mPreInflated) {
+            mPreInflated = true;
+            adapter.preInflate(context, mRecycledViewPool, mInitialItemCount);
+        }
+        new ListConfig.Builder(adapter)
+                .setLayoutManagerProvider(mLayoutManagerProvider)
+                .setRecycledViewPool(mRecycledViewPool)
+                .build(context)
+                .applyConfig(context, recyclerView);
+        final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            // return nested items to the shared pool when the carousel is detached
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        }
+        return new CarouselHolder<>(binding, recyclerView, adapter);
+    }
+
+    /**
+     * @return 0, as view holders keep nested adapters with delegates of this delegate
+     */
+    @Override
+    public int getGlobalViewType() {
+        return 0;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull BindingHolder<ViewDataBinding> holder) {
+        super.onBindViewHolder(items, position, holder);
+        //noinspection unchecked
+        final CarouselHolder<I> carousel = (CarouselHolder<I>) holder;
+        final long id = getItemId(items, position);
+        final List<I> nestedItems = mItemsProvider.getItems(items.get(position));
+        // the same item keeps its current scroll position
+        final boolean sameItem = id != NO_ID && id == carousel.mBoundId;
+        if (!sameItem) saveScrollState(carousel);
+        // nested items may be changed in place, so they are always rebound on full binding
+        carousel.mAdapter.setItems(nestedItems);
+        carousel.mAdapter.notifyDataSetChanged();
+        if (sameItem) return;
+        carousel.mBoundId = id;
+        final Parcelable scrollState = id != NO_ID ? mScrollStates.get(id) : null;
+        if (scrollState != null) {
+            carousel.mRecyclerView.getLayoutManager().onRestoreInstanceState(scrollState);
+        } else {
+            carousel.mRecyclerView.scrollToPosition(0);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull BindingHolder<ViewDataBinding> holder) {
+        //noinspection unchecked
+        final CarouselHolder<I> carousel = (CarouselHolder<I>) holder;
+        saveScrollState(carousel);
+        carousel.mBoundId = NO_ID;
+    }
+
+    /**
+     * Drop saved scroll positions of nested lists, for example when the data set is replaced
+     */
+    public void clearScrollStates() {
+        mScrollStates.evictAll();
+    }
+
+    private void saveScrollState(CarouselHolder<I> carousel) {
+        if (carousel.mBoundId == NO_ID) return;
+        final Parcelable scrollState = carousel.mRecyclerView.getLayoutManager().onSaveInstanceState();
+        if (scrollState != null) mScrollStates.put(carousel.mBoundId, scrollState);
+    }
+
+    /**
+     * Provider of nested items
+     *
+     * @param <T> The type of the data source
+     * @param <I> The type of nested items
+     */
+    public interface ItemsProvider<T, I> {
+        List<I> getItems(T item);
+    }
+
+    private static class CarouselHolder<I> extends BindingHolder<ViewDataBinding> {
+        final RecyclerView mRecyclerView;
+        final BindableAdapter<List<I>> mAdapter;
+        long mBoundId = NO_ID;
+
+        CarouselHolder(ViewDataBinding binding, RecyclerView recyclerView, BindableAdapter<List<I>> adapter) {
+            super(binding);
+            mRecyclerView = recyclerView;
+            mAdapter = adapter;
+        }
+    }
+}
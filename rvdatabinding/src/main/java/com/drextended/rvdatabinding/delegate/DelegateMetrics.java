@@ -0,0 +1,63 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+/**
+ * Latencies of view holder creation and binding of one delegate,
+ * see {@link BaseBindingAdapterDelegate#setMetricsEnabled(boolean)}.
+ * Can be polled from any thread.
+ */
+public final class DelegateMetrics {
+
+    private final LatencyHistogram mCreate = new LatencyHistogram();
+    private final LatencyHistogram mBind = new LatencyHistogram();
+    private final LatencyHistogram mExecutePendingBindings = new LatencyHistogram();
+
+    DelegateMetrics() {
+    }
+
+    /**
+     * @return latencies of {@link BaseBindingAdapterDelegate#onCreateViewHolder(android.view.ViewGroup)}
+     */
+    public LatencyHistogram getCreateLatency() {
+        return mCreate;
+    }
+
+    /**
+     * @return latencies of binding item, not including {@link android.databinding.ViewDataBinding#executePendingBindings()}
+     */
+    public LatencyHistogram getBindLatency() {
+        return mBind;
+    }
+
+    /**
+     * @return latencies of {@link android.databinding.ViewDataBinding#executePendingBindings()} after binding item,
+     * recorded only for {@link BaseBindingAdapterDelegate#EXECUTE_IMMEDIATE} policy
+     */
+    public LatencyHistogram getExecutePendingBindingsLatency() {
+        return mExecutePendingBindings;
+    }
+
+    /**
+     * Reset all latencies
+     */
+    public void reset() {
+        mCreate.reset();
+        mBind.reset();
+        mExecutePendingBindings.reset();
+    }
+}
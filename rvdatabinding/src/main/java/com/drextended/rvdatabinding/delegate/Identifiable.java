@@ -0,0 +1,32 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.drextended.rvdatabinding.delegate;
+
+/**
+ * Interface for models with stable identity.
+ * If models implement this interface, {@link BaseListBindingAdapterDelegate} provides their ids
+ * to the adapter by default, and stable ids are enabled for adapters with {@link ModelItemDelegate}s
+ * for such models.
+ */
+public interface Identifiable {
+
+    /**
+     * Get stable id of the model
+     *
+     * @return the stable id, unique across all items of the data source
+     */
+    long getId();
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with power of two buckets: bucket {@code i} counts latencies
+ * less than {@code 2^i} nanoseconds and not less than {@code 2^(i-1)}, the last bucket counts all longer ones.
+ * Recording neither locks nor allocates, values can be read from any thread while recording.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Count of buckets. The last bucket counts latencies from about 1 second.
+     */
+    public static final int BUCKET_COUNT = 32;
+
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mTotalNanos = new AtomicLong();
+    private final AtomicLong mMaxNanos = new AtomicLong();
+
+    /**
+     * Record latency
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        mBuckets.incrementAndGet(bucketOf(nanos));
+        mCount.incrementAndGet();
+        mTotalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = mMaxNanos.get()) && !mMaxNanos.compareAndSet(max, nanos)) {
+            // retry until max is updated by this or another thread
+        }
+    }
+
+    /**
+     * @return the count of recorded latencies
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * @return the sum of recorded latencies in nanoseconds
+     */
+    public long getTotalNanos() {
+        return mTotalNanos.get();
+    }
+
+    /**
+     * @return the max recorded latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return mMaxNanos.get();
+    }
+
+    /**
+     * @return the mean recorded latency in nanoseconds or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        final long count = mCount.get();
+        return count > 0 ? mTotalNanos.get() / count : 0;
+    }
+
+    /**
+     * @param bucket the bucket index from 0 to {@link #BUCKET_COUNT} - 1
+     * @return the count of latencies in the bucket
+     */
+    public long getBucketCount(int bucket) {
+        return mBuckets.get(bucket);
+    }
+
+    /**
+     * @param bucket the bucket index from 0 to {@link #BUCKET_COUNT} - 1
+     * @return the exclusive upper bound of latencies in the bucket in nanoseconds,
+     * {@link Long#MAX_VALUE} for the last bucket
+     */
+    public static long getBucketUpperBoundNanos(int bucket) {
+        return bucket < BUCKET_COUNT - 1 ? 1L << bucket : Long.MAX_VALUE;
+    }
+
+    /**
+     * Copy counts of buckets without allocation
+     *
+     * @param out the array of at least {@link #BUCKET_COUNT} length
+     */
+    public void copyBucketCounts(long[] out) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            out[i] = mBuckets.get(i);
+        }
+    }
+
+    /**
+     * Estimate percentile by the upper bound of the bucket containing it, but not greater than max latency
+     *
+     * @param percentile the percentile from 0 to 100
+     * @return the estimated latency in nanoseconds or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        final long count = mCount.get();
+        if (count == 0) return 0;
+        final long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets.get(i);
+            if (seen >= rank) return Math.min(getBucketUpperBoundNanos(i), mMaxNanos.get());
+        }
+        return mMaxNanos.get();
+    }
+
+    /**
+     * Reset all recorded values. Values recorded concurrently with reset may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mTotalNanos.set(0);
+        mMaxNanos.set(0);
+    }
+
+    private static int bucketOf(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1);
+    }
+}
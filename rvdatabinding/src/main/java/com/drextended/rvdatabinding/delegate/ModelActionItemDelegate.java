@@ -19,7 +19,6 @@ package com.drextended.rvdatabinding.delegate;
 import android.databinding.ViewDataBinding;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
-import android.view.ViewGroup;
 
 import com.drextended.actionhandler.listener.ActionClickListener;
 import com.drextended.rvdatabinding.BR;
@@ -67,8 +66,8 @@ public class ModelActionItemDelegate<T> extends ModelItemDelegate<T> {
 
     @NonNull
     @Override
-    public BindingHolder<ViewDataBinding> onCreateViewHolder(ViewGroup parent) {
-        BindingHolder<ViewDataBinding> holder = super.onCreateViewHolder(parent);
+    public BindingHolder<ViewDataBinding> onCreateViewHolder(@NonNull ViewDataBinding binding) {
+        BindingHolder<ViewDataBinding> holder = super.onCreateViewHolder(binding);
         final ActionClickListener actionHandler = getActionHandler();
         if (actionHandler != null) {
             holder.getBinding().setVariable(mActionHandlerId, actionHandler);
@@ -76,6 +75,14 @@ public class ModelActionItemDelegate<T> extends ModelItemDelegate<T> {
         return holder;
     }
 
+    /**
+     * @return 0, as view holders keep the action handler of this delegate set on creation
+     */
+    @Override
+    public int getGlobalViewType() {
+        return 0;
+    }
+
     public ActionClickListener getActionHandler() {
         return mActionHandler;
     }
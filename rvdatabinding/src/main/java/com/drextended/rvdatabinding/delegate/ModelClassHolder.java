@@ -0,0 +1,36 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Interface to help BindableAdapter resolving view type by the class of item only.
+ * You can implement this interface in you custom AdapterDelegates
+ * if they are chosen only by the class of item and not by its position or content.
+ */
+public interface ModelClassHolder {
+
+    /**
+     * Get the model class handled by the delegate
+     *
+     * @return the model class, items of this class or its subclasses are handled by the delegate,
+     * or null if the delegate is not chosen by the class of item only.
+     */
+    @Nullable
+    Class<?> getModelClass();
+}
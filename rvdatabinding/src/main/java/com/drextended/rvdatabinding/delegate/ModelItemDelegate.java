@@ -16,9 +16,12 @@
 
 package com.drextended.rvdatabinding.delegate;
 
+import android.databinding.BaseObservable;
+import android.databinding.DataBindingUtil;
 import android.databinding.ViewDataBinding;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
@@ -34,11 +37,14 @@ import java.util.List;
  *
  * @param <T> The type of the data source
  */
-public class ModelItemDelegate<T> extends BaseListBindingAdapterDelegate<T, ViewDataBinding> {
+public class ModelItemDelegate<T> extends BaseListBindingAdapterDelegate<T, ViewDataBinding> implements ModelClassHolder {
 
     private final int mModelId;
     private final int mItemLayoutResId;
     private final ViewTypeClause mViewTypeClause;
+    private int[] mDeferredModelIds;
+    private int mGlobalViewType;
+    private boolean mClassKeyed;
 
     public ModelItemDelegate(@NonNull Class<? extends T> modelClass, @LayoutRes int itemLayoutResId) {
         this(itemLayoutResId, BR.model, new SimpleViewTypeClause(modelClass));
@@ -59,18 +65,119 @@ public class ModelItemDelegate<T> extends BaseListBindingAdapterDelegate<T, View
         return mViewTypeClause.isForViewType(items, position);
     }
 
+    /**
+     * @return the model class if resolving view type by class is enabled by {@link #setClassKeyed(boolean)}
+     */
+    @Nullable
+    @Override
+    public Class<?> getModelClass() {
+        return mClassKeyed ? getClauseModelClass() : null;
+    }
+
+    /**
+     * Opt in to resolving view type by the class of item only, see {@link ModelClassHolder}.
+     * Use it only if the delegate is created with model class and {@link #isForViewType(List, int)}
+     * is not overridden, so the delegate does not depend on item position or content. Disabled by default.
+     * Must be set before the delegate is passed to adapter.
+     *
+     * @param classKeyed true to let adapter resolve view type by the class of item
+     */
+    public void setClassKeyed(boolean classKeyed) {
+        mClassKeyed = classKeyed;
+    }
+
+    @Nullable
+    private Class<?> getClauseModelClass() {
+        return mViewTypeClause instanceof SimpleViewTypeClause
+                ? ((SimpleViewTypeClause) mViewTypeClause).getModelClass()
+                : null;
+    }
+
+    /**
+     * @return true if the model class implements {@link Identifiable}
+     */
+    @Override
+    public boolean hasStableIds() {
+        final Class<?> modelClass = getClauseModelClass();
+        return modelClass != null && Identifiable.class.isAssignableFrom(modelClass);
+    }
+
     @NonNull
     @Override
     public BindingHolder<ViewDataBinding> onCreateViewHolder(ViewGroup parent) {
-        return BindingHolder.newInstance(mItemLayoutResId,
-                LayoutInflater.from(parent.getContext()), parent, false);
+        final ViewDataBinding binding = DataBindingUtil.inflate(
+                LayoutInflater.from(parent.getContext()), mItemLayoutResId, parent, false);
+        return onCreateViewHolder(binding);
+    }
+
+    @Override
+    public int getItemLayoutResId() {
+        return mItemLayoutResId;
+    }
+
+    /**
+     * @return the view type set by {@link #setGlobalViewType(int)} or 0
+     */
+    @Override
+    public int getGlobalViewType() {
+        return mGlobalViewType;
+    }
+
+    /**
+     * Opt in to sharing view holders between adapters, see {@link BaseBindingAdapterDelegate#getGlobalViewType()}.
+     * Use it only if the layout is fully bound by the model variables, for example pass the layout resource ID.
+     * Not shared by default.
+     *
+     * @param globalViewType the positive global view type or 0 to not share view holders
+     */
+    public void setGlobalViewType(int globalViewType) {
+        mGlobalViewType = globalViewType;
+    }
+
+    /**
+     * Set ids of additional variables the model is bound to when scrolling stops,
+     * see {@link BindingHolder#setDeferredVariable(int, Object)}. Use them in layout
+     * for expensive parts, like loading images.
+     *
+     * @param deferredModelIds the BR ids of variables
+     */
+    public void setDeferredModelIds(int... deferredModelIds) {
+        mDeferredModelIds = deferredModelIds;
     }
 
     @Override
     public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull BindingHolder<ViewDataBinding> holder) {
         ViewDataBinding binding = holder.getBinding();
-        binding.setVariable(mModelId, items.get(position));
-        binding.executePendingBindings();
+        final T item = items.get(position);
+        binding.setVariable(mModelId, item);
+        holder.setBoundItem(item);
+        if (mDeferredModelIds != null) {
+            for (int deferredModelId : mDeferredModelIds) {
+                holder.setDeferredVariable(deferredModelId, item);
+            }
+        }
+    }
+
+    /**
+     * Partial rebinding by {@link BindingPayload}. If payload contains the model variable id,
+     * the model is set again. Other ids are treated as properties of the model changed in place:
+     * if the model is {@link BaseObservable}, only these properties are notified,
+     * so only the dependent binding expressions are re-evaluated.
+     * If the item is replaced by another instance, for example by {@link com.drextended.rvdatabinding.adapter.BindableAdapter#submitList(List)},
+     * the holder is fully rebound, as the binding still observes the old instance.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull BindingHolder<ViewDataBinding> holder, @NonNull List<Object> payloads) {
+        final BindingPayload payload = BindingPayload.merge(payloads);
+        final T item = items.get(position);
+        if (payload == null || payload.contains(mModelId) || !(item instanceof BaseObservable)
+                || holder.getBoundItem() != item) {
+            onBindViewHolder(items, position, holder);
+            return;
+        }
+        for (int propertyId : payload.getVariableIds()) {
+            ((BaseObservable) item).notifyPropertyChanged(propertyId);
+        }
     }
 
     public interface ViewTypeClause {
@@ -85,6 +192,9 @@ public class ModelItemDelegate<T> extends BaseListBindingAdapterDelegate<T, View
             mClass = aClass;
         }
 
+        public Class<?> getModelClass() {
+            return mClass;
+        }
 
         @Override
         public boolean isForViewType(List<?> items, int position) {
@@ -0,0 +1,116 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.delegate;
+
+import android.databinding.DataBindingUtil;
+import android.databinding.ViewDataBinding;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import com.drextended.rvdatabinding.R;
+import com.drextended.rvdatabinding.adapter.BindingHolder;
+
+import java.util.List;
+
+/**
+ * Delegate for null items, which are placeholders of items not loaded yet or dropped,
+ * see {@link com.drextended.rvdatabinding.adapter.PagedBindableAdapter}.
+ * Must be checked before other delegates, as they may not expect null items.
+ * It must match only null items: the adapter resolves view types of other items by their class
+ * without checking this delegate.
+ * Placeholders are not bound at all, so the layout should have fixed height
+ * to keep scroll position and fast scroll stable while items are loaded.
+ *
+ * @param <T> The type of the data source
+ */
+public class PlaceholderItemDelegate<T> extends BaseListBindingAdapterDelegate<T, ViewDataBinding> {
+
+    /**
+     * Ids of placeholders are {@code PLACEHOLDER_ID_BASE - position}, so they do not clash with usual ids
+     */
+    public static final long PLACEHOLDER_ID_BASE = Long.MIN_VALUE / 2;
+
+    private final int mItemLayoutResId;
+
+    /**
+     * Creates delegate with default placeholder layout
+     */
+    public PlaceholderItemDelegate() {
+        this(R.layout.item_placeholder);
+    }
+
+    /**
+     * Creates delegate
+     *
+     * @param itemLayoutResId the layout of placeholders, data binding layout without variables
+     */
+    public PlaceholderItemDelegate(@LayoutRes int itemLayoutResId) {
+        mItemLayoutResId = itemLayoutResId;
+    }
+
+    @Override
+    public boolean isForViewType(@NonNull List<T> items, int position) {
+        return items.get(position) == null;
+    }
+
+    @NonNull
+    @Override
+    public BindingHolder<ViewDataBinding> onCreateViewHolder(ViewGroup parent) {
+        final ViewDataBinding binding = DataBindingUtil.inflate(
+                LayoutInflater.from(parent.getContext()), mItemLayoutResId, parent, false);
+        return onCreateViewHolder(binding);
+    }
+
+    @Override
+    public int getItemLayoutResId() {
+        return mItemLayoutResId;
+    }
+
+    /**
+     * @return the layout resource ID, as placeholders do not depend on the delegate
+     */
+    @Override
+    public int getGlobalViewType() {
+        return mItemLayoutResId;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull RecyclerView.ViewHolder holder) {
+        // nothing to bind, skip executing pending bindings
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull RecyclerView.ViewHolder holder, @NonNull List<Object> payloads) {
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull List<T> items, int position, @NonNull BindingHolder<ViewDataBinding> holder) {
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @Override
+    public long getItemId(List<T> items, int position) {
+        return PLACEHOLDER_ID_BASE - position;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedDiffTest {
+
+    @Test
+    public void removesInsertsAndChanges() {
+        assertReplay(items(1, 2, 3, 4, 5), items(0, 2, 3, 6, 5).set(1, "changed"));
+    }
+
+    @Test
+    public void movesItems() {
+        assertReplay(items(1, 2, 3, 4, 5), items(5, 3, 1, 2, 4));
+        assertReplay(items(1, 2, 3, 4, 5), items(2, 3, 4, 5, 1));
+        assertReplay(items(1, 2, 3, 4, 5), items(5, 1, 2, 3, 4));
+    }
+
+    @Test
+    public void movesAndChangesSameItems() {
+        assertReplay(items(1, 2, 3, 4), items(4, 7, 3, 1).set(0, "changed").set(3, "changed"));
+    }
+
+    @Test
+    public void emptyDiffForEqualLists() {
+        final Recorder recorder = new Recorder();
+        final ItemList items = items(1, 2, 3);
+        diff(items, items(1, 2, 3)).dispatchUpdatesTo(recorder);
+        assertEquals(0, recorder.mCount);
+    }
+
+    @Test
+    public void randomLists() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            final ItemList oldItems = randomItems(random);
+            final ItemList newItems = randomItems(random);
+            for (int i = 0; i < newItems.size(); i++) {
+                if (random.nextInt(4) == 0) newItems.set(i, "changed");
+            }
+            assertReplay(oldItems, newItems);
+        }
+    }
+
+    @Test
+    public void returnsNullForDuplicateIds() {
+        assertNull(diff(items(1, 2, 1), items(1, 2)));
+        assertNull(diff(items(1, 2), items(2, 2)));
+    }
+
+    @Test
+    public void returnsNullForMissingIds() {
+        assertNull(diff(items(1, RecyclerView.NO_ID), items(1)));
+    }
+
+    private static void assertReplay(ItemList oldItems, ItemList newItems) {
+        final KeyedDiff diff = diff(oldItems, newItems);
+        assertNotNull(diff);
+        final Replay replay = new Replay(oldItems, newItems);
+        diff.dispatchUpdatesTo(replay);
+        assertEquals(newItems, replay.mItems);
+    }
+
+    private static KeyedDiff diff(ItemList oldItems, ItemList newItems) {
+        return KeyedDiff.calculate(oldItems, newItems, oldItems.ids(), newItems.ids(), null);
+    }
+
+    private static ItemList items(long... ids) {
+        final ItemList items = new ItemList();
+        for (long id : ids) {
+            items.add(new Item(id, "item " + id));
+        }
+        return items;
+    }
+
+    private static ItemList randomItems(Random random) {
+        final List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            if (random.nextBoolean()) ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        final long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return items(array);
+    }
+
+    private static final class Item {
+        final long mId;
+        final String mContent;
+
+        Item(long id, String content) {
+            mId = id;
+            mContent = content;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Item)) return false;
+            final Item item = (Item) o;
+            return mId == item.mId && mContent.equals(item.mContent);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{mId, mContent});
+        }
+
+        @Override
+        public String toString() {
+            return mId + ": " + mContent;
+        }
+    }
+
+    private static final class ItemList extends ArrayList<Item> {
+
+        ItemList set(int position, String content) {
+            set(position, new Item(get(position).mId, content));
+            return this;
+        }
+
+        long[] ids() {
+            final long[] ids = new long[size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = get(i).mId;
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Applies updates to a copy of the old list. Inserted and changed items are taken
+     * from the new list, so every update must point at the final position of the item.
+     */
+    private static final class Replay implements ListUpdateCallback {
+        final List<Item> mItems;
+        final List<Item> mNewItems;
+        final List<Item> mInserted = new ArrayList<>();
+
+        Replay(List<Item> oldItems, List<Item> newItems) {
+            mItems = new ArrayList<>(oldItems);
+            mNewItems = newItems;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                final Item item = mNewItems.get(position + i);
+                mInserted.add(item);
+                mItems.add(position + i, item);
+            }
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            mItems.subList(position, position + count).clear();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mItems.add(toPosition, mItems.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            for (int i = position; i < position + count; i++) {
+                final Item item = mNewItems.get(i);
+                assertEquals("changed item is not in place", item.mId, mItems.get(i).mId);
+                assertTrue("inserted item is changed", !mInserted.contains(mItems.get(i)));
+                mItems.set(i, item);
+            }
+        }
+    }
+
+    private static final class Recorder implements ListUpdateCallback {
+        int mCount;
+
+        @Override
+        public void onInserted(int position, int count) {
+            mCount++;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            mCount++;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mCount++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            mCount++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.rvdatabinding.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+import com.hannesdorfmann.adapterdelegates2.AdapterDelegate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PagedBindableAdapterTest {
+
+    private PagedBindableAdapter<String> mAdapter;
+    private final List<String> mChanges = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        //noinspection unchecked
+        mAdapter = new PagedBindableAdapter<>(2, 2, new StringDelegate());
+        mAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                mChanges.add(positionStart + "+" + itemCount);
+            }
+        });
+    }
+
+    @Test
+    public void keepsPagesWithinLimit() {
+        mAdapter.appendPage(Arrays.asList("a", "b"));
+        mAdapter.appendPage(Arrays.asList("c", "d"));
+        assertTrue(mChanges.isEmpty());
+        assertEquals(0, mAdapter.getLoadedStart());
+        assertEquals(4, mAdapter.getLoadedEnd());
+    }
+
+    @Test
+    public void dropsFirstPageWhenLoadingForward() {
+        mAdapter.appendPage(Arrays.asList("a", "b"));
+        mAdapter.appendPage(Arrays.asList("c", "d"));
+        mAdapter.appendPage(Arrays.asList("e", "f"));
+
+        assertFalse(mAdapter.isPageLoaded(0));
+        assertTrue(mAdapter.isPageLoaded(1));
+        assertTrue(mAdapter.isPageLoaded(2));
+        assertEquals(6, mAdapter.getItemCount());
+        assertEquals(Arrays.asList(null, null, "c", "d", "e", "f"), mAdapter.getItems());
+        assertEquals(Arrays.asList("0+2"), mChanges);
+        assertEquals(2, mAdapter.getLoadedStart());
+        assertEquals(6, mAdapter.getLoadedEnd());
+        assertEquals(0, mAdapter.getBackwardPage());
+        assertEquals(3, mAdapter.getForwardPage());
+    }
+
+    @Test
+    public void dropsLastPageWhenLoadingBackward() {
+        mAdapter.appendPage(Arrays.asList("a", "b"));
+        mAdapter.appendPage(Arrays.asList("c", "d"));
+        mAdapter.appendPage(Arrays.asList("e", "f"));
+        mChanges.clear();
+
+        mAdapter.setPage(0, Arrays.asList("a", "b"));
+
+        assertTrue(mAdapter.isPageLoaded(0));
+        assertTrue(mAdapter.isPageLoaded(1));
+        assertFalse(mAdapter.isPageLoaded(2));
+        assertEquals(6, mAdapter.getItemCount());
+        assertEquals(Arrays.asList("a", "b", "c", "d", null, null), mAdapter.getItems());
+        assertEquals(Arrays.asList("0+2", "4+2"), mChanges);
+        assertEquals(0, mAdapter.getLoadedStart());
+        assertEquals(4, mAdapter.getLoadedEnd());
+        assertEquals(-1, mAdapter.getBackwardPage());
+    }
+
+    @Test
+    public void movesWindowToNotAdjacentPage() {
+        mAdapter.setTotalCount(10);
+        mAdapter.setPage(0, Arrays.asList("a", "b"));
+        mAdapter.setPage(1, Arrays.asList("c", "d"));
+        mChanges.clear();
+
+        mAdapter.setPage(3, Arrays.asList("g", "h"));
+
+        assertFalse(mAdapter.isPageLoaded(0));
+        assertFalse(mAdapter.isPageLoaded(1));
+        assertTrue(mAdapter.isPageLoaded(3));
+        assertEquals(10, mAdapter.getItemCount());
+        assertEquals(6, mAdapter.getLoadedStart());
+        assertEquals(8, mAdapter.getLoadedEnd());
+        // nothing is bound yet, so the anchor at position 0 is far before the window
+        assertEquals(0, mAdapter.getBackwardPage());
+        assertEquals(4, mAdapter.getForwardPage());
+        assertNull(mAdapter.getItems().get(0));
+    }
+
+    @Test
+    public void clearDropsWindow() {
+        mAdapter.appendPage(Arrays.asList("a", "b"));
+        mAdapter.clear();
+        assertEquals(0, mAdapter.getItemCount());
+        assertEquals(0, mAdapter.getLoadedEnd());
+        assertEquals(0, mAdapter.getForwardPage());
+    }
+
+    private static class StringDelegate implements AdapterDelegate<List<String>> {
+
+        @Override
+        public boolean isForViewType(@NonNull List<String> items, int position) {
+            return items.get(position) != null;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull List<String> items, int position, @NonNull RecyclerView.ViewHolder holder) {
+        }
+    }
+}
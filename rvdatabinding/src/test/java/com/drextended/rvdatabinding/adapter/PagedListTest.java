@@ -0,0 +1,123 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.rvdatabinding.adapter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PagedListTest {
+
+    @Test
+    public void appendsPages() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a", "b"));
+        list.setPage(1, Arrays.asList("c"));
+        assertEquals(3, list.size());
+        assertEquals(2, list.getPageCount());
+        assertEquals(Arrays.asList("a", "b", "c"), list);
+        assertEquals(1, list.getPageItemCount(1));
+    }
+
+    @Test
+    public void skippedPagesAreNotLoaded() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(2, Arrays.asList("e", "f"));
+        assertEquals(6, list.size());
+        assertFalse(list.isPageLoaded(0));
+        assertFalse(list.isPageLoaded(1));
+        assertTrue(list.isPageLoaded(2));
+        assertNull(list.get(0));
+        assertEquals("e", list.get(4));
+    }
+
+    @Test
+    public void droppedPageKeepsPositions() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a", "b"));
+        list.setPage(1, Arrays.asList("c", "d"));
+        list.dropPage(0);
+        assertEquals(4, list.size());
+        assertFalse(list.isPageLoaded(0));
+        assertEquals(Arrays.asList(null, null, "c", "d"), list);
+        list.setPage(0, Arrays.asList("a", "b"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), list);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIncompletePageBeforeLast() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a", "b"));
+        list.setPage(1, Arrays.asList("c", "d"));
+        list.setPage(0, Arrays.asList("a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsPageAfterIncompletePage() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a"));
+        list.setPage(1, Arrays.asList("b", "c"));
+    }
+
+    @Test
+    public void totalCountAddsPlaceholders() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a", "b"));
+        list.setTotalCount(5);
+        assertTrue(list.isTotalCountKnown());
+        assertEquals(5, list.size());
+        assertEquals(3, list.getPageCount());
+        assertEquals(1, list.getPageItemCount(2));
+        assertNull(list.get(4));
+        list.setPage(2, Arrays.asList("e"));
+        assertEquals("e", list.get(4));
+    }
+
+    @Test
+    public void totalCountCutsLastPage() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setPage(0, Arrays.asList("a", "b"));
+        list.setPage(1, Arrays.asList("c", "d"));
+        list.setTotalCount(3);
+        assertEquals(3, list.size());
+        assertTrue(list.isPageLoaded(0));
+        assertFalse(list.isPageLoaded(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void knownTotalCountRequiresExactPage() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setTotalCount(5);
+        list.setPage(2, Arrays.asList("e", "f"));
+    }
+
+    @Test
+    public void clearDropsAll() {
+        final PagedList<String> list = new PagedList<>(2);
+        list.setTotalCount(5);
+        list.clear();
+        assertEquals(0, list.size());
+        assertEquals(0, list.getPageCount());
+        assertFalse(list.isTotalCountKnown());
+    }
+}
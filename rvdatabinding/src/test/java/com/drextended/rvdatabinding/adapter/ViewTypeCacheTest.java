@@ -0,0 +1,98 @@
+/*
+ *  Copyright Roman Donchenko. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+
+package com.drextended.rvdatabinding.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.drextended.rvdatabinding.adapter.ViewTypeCache.UNKNOWN;
+import static org.junit.Assert.assertEquals;
+
+public class ViewTypeCacheTest {
+
+    private ViewTypeCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new ViewTypeCache();
+        for (int i = 0; i < 5; i++) {
+            mCache.put(i, 10 + i);
+        }
+    }
+
+    @Test
+    public void returnsPutViewTypes() {
+        assertTypes(10, 11, 12, 13, 14);
+        assertEquals(UNKNOWN, mCache.get(5));
+        mCache.put(7, 17);
+        assertTypes(10, 11, 12, 13, 14, UNKNOWN, UNKNOWN, 17);
+    }
+
+    @Test
+    public void insertShiftsViewTypes() {
+        mCache.onItemRangeInserted(1, 2);
+        assertTypes(10, UNKNOWN, UNKNOWN, 11, 12, 13, 14);
+    }
+
+    @Test
+    public void insertAfterEndKeepsViewTypes() {
+        mCache.onItemRangeInserted(5, 2);
+        assertTypes(10, 11, 12, 13, 14);
+        assertEquals(UNKNOWN, mCache.get(5));
+    }
+
+    @Test
+    public void removeShiftsViewTypes() {
+        mCache.onItemRangeRemoved(1, 2);
+        assertTypes(10, 13, 14);
+        assertEquals(UNKNOWN, mCache.get(3));
+    }
+
+    @Test
+    public void removeBeyondEndDropsTail() {
+        mCache.onItemRangeRemoved(3, 10);
+        assertTypes(10, 11, 12);
+        assertEquals(UNKNOWN, mCache.get(3));
+    }
+
+    @Test
+    public void changeInvalidatesRange() {
+        mCache.onItemRangeChanged(1, 2);
+        assertTypes(10, UNKNOWN, UNKNOWN, 13, 14);
+    }
+
+    @Test
+    public void moveInvalidatesAffectedRange() {
+        mCache.onItemRangeMoved(3, 1, 1);
+        assertTypes(10, UNKNOWN, UNKNOWN, UNKNOWN, 14);
+    }
+
+    @Test
+    public void dataSetChangeClearsAll() {
+        mCache.onChanged();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(UNKNOWN, mCache.get(i));
+        }
+    }
+
+    private void assertTypes(int... viewTypes) {
+        for (int i = 0; i < viewTypes.length; i++) {
+            assertEquals("position " + i, viewTypes[i], mCache.get(i));
+        }
+    }
+}
@@ -15,9 +15,10 @@
  */
 package com.drextended.rvdbsample.model;
 
+import com.drextended.rvdatabinding.delegate.Identifiable;
+
 /**
  * Base model
  */
-public interface BaseModel {
-    long getId();
+public interface BaseModel extends Identifiable {
 }
@@ -20,13 +20,17 @@ import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentStatePagerAdapter;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.RecyclerView;
 
+import com.drextended.rvdatabinding.adapter.AdaptivePoolSizer;
 import com.drextended.rvdbsample.R;
 import com.drextended.rvdbsample.databinding.ActivityMainBinding;
 
 public class MainActivity extends AppCompatActivity {
 
     private ActivityMainBinding mBinding;
+    private final RecyclerView.RecycledViewPool mRecycledViewPool = new RecyclerView.RecycledViewPool();
+    private final AdaptivePoolSizer mPoolSizer = new AdaptivePoolSizer(mRecycledViewPool);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -54,4 +58,18 @@ public class MainActivity extends AppCompatActivity {
         });
         mBinding.tabLayout.setupWithViewPager(mBinding.viewPager);
     }
+
+    /**
+     * @return the pool shared between lists of all pages
+     */
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return mRecycledViewPool;
+    }
+
+    /**
+     * @return the sizer of the shared pool
+     */
+    public AdaptivePoolSizer getPoolSizer() {
+        return mPoolSizer;
+    }
 }
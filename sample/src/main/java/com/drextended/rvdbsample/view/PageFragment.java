@@ -20,10 +20,12 @@ import android.databinding.DataBindingUtil;
 import android.os.Bundle;
 import android.support.design.widget.Snackbar;
 import android.support.v4.app.Fragment;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.drextended.rvdatabinding.adapter.AdaptivePoolSizer;
 import com.drextended.rvdbsample.R;
 import com.drextended.rvdbsample.databinding.FragmentPageBinding;
 import com.drextended.rvdbsample.util.SimpleCallback;
@@ -53,12 +55,15 @@ public class PageFragment extends Fragment implements SimpleCallback {
         int page = 0;
         if (getArguments() != null) page = getArguments().getInt(ARG_PAGE, 0);
 
+        final MainActivity activity = (MainActivity) getActivity();
+        final RecyclerView.RecycledViewPool recycledViewPool = activity.getRecycledViewPool();
+        final AdaptivePoolSizer poolSizer = activity.getPoolSizer();
         switch (page) {
             case 0:
-                mViewModel = new UserListViewModel(getContext(), this);
+                mViewModel = new UserListViewModel(getContext(), recycledViewPool, poolSizer, this);
                 break;
             case 1:
-                mViewModel = new LocationListViewModel(getContext());
+                mViewModel = new LocationListViewModel(getContext(), recycledViewPool, poolSizer);
                 break;
             case 2:
             default:
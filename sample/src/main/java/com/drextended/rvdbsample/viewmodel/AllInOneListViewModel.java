@@ -52,15 +52,23 @@ public class AllInOneListViewModel implements ListViewModel {
                 //.addAction(null, new TrackAction()) // fires for any actionType
                 .build();
 
+        // new UserDelegate(actionHandler), you do not need even create custom delegate
+        final ModelActionItemDelegate<BaseModel> userDelegate =
+                new ModelActionItemDelegate<BaseModel>(actionHandler, User.class, R.layout.item_user, BR.user);
+        final ModelActionItemDelegate<BaseModel> locationDelegate =
+                new ModelActionItemDelegate<BaseModel>(actionHandler, Location.class, R.layout.item_location, BR.location);
+        final ModelActionItemDelegate<BaseModel> advertisementDelegate =
+                new ModelActionItemDelegate<BaseModel>(actionHandler, Advertisement.class, R.layout.item_advertisment, BR.advertisment);
+        // delegates are chosen by model class only, so view types are resolved once per class
+        userDelegate.setClassKeyed(true);
+        locationDelegate.setClassKeyed(true);
+        advertisementDelegate.setClassKeyed(true);
+
         //noinspection unchecked
-        mAdapter = new BindableAdapter<>(
-                // new UserDelegate(actionHandler), you do not need even create custom delegate
-                new ModelActionItemDelegate<BaseModel>(actionHandler, User.class, R.layout.item_user, BR.user),
-                new ModelActionItemDelegate<BaseModel>(actionHandler, Location.class, R.layout.item_location, BR.location),
-                new ModelActionItemDelegate<BaseModel>(actionHandler, Advertisement.class, R.layout.item_advertisment, BR.advertisment)
-        );
+        mAdapter = new BindableAdapter<>(userDelegate, locationDelegate, advertisementDelegate);
         mListConfig = new ListConfig.Builder(mAdapter)
                 .setDefaultDividerEnabled(true)
+                .setPreInflateCount(3)
                 .build(context);
 
         loadData();
@@ -75,8 +83,7 @@ public class AllInOneListViewModel implements ListViewModel {
     public void onDestroy() {}
 
     private void loadData() {
-        mAdapter.setItems(getDummyData());
-        mAdapter.notifyDataSetChanged();
+        mAdapter.submitList(getDummyData());
     }
 
     private List<BaseModel> getDummyData() {
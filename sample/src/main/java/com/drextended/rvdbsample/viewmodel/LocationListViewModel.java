@@ -22,6 +22,7 @@ import android.support.v7.widget.RecyclerView;
 import com.drextended.actionhandler.ActionHandler;
 import com.drextended.actionhandler.listener.ActionClickListener;
 import com.drextended.rvdatabinding.ListConfig;
+import com.drextended.rvdatabinding.adapter.AdaptivePoolSizer;
 import com.drextended.rvdatabinding.adapter.BindableAdapter;
 import com.drextended.rvdatabinding.adapter.DividerItemDecoration;
 import com.drextended.rvdbsample.model.ActionType;
@@ -37,6 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static com.drextended.rvdatabinding.adapter.DividerItemDecoration.SPACE_BOTTOM;
+import static com.drextended.rvdatabinding.adapter.DividerItemDecoration.SPACE_GRID;
 import static com.drextended.rvdatabinding.adapter.DividerItemDecoration.SPACE_LEFT;
 import static com.drextended.rvdatabinding.adapter.DividerItemDecoration.SPACE_RIGHT;
 import static com.drextended.rvdatabinding.adapter.DividerItemDecoration.SPACE_TOP;
@@ -49,7 +51,8 @@ public class LocationListViewModel implements ListViewModel {
     private ListConfig mListConfig;
     private BindableAdapter<List<BaseModel>> mAdapter;
 
-    public LocationListViewModel(Context context) {
+    public LocationListViewModel(Context context, final RecyclerView.RecycledViewPool recycledViewPool,
+                                 final AdaptivePoolSizer poolSizer) {
         final ActionClickListener actionHandler = new ActionHandler.Builder()
                 .addAction(ActionType.OPEN, new OpenLocationAction())
                 .addAction(ActionType.MENU, new ShowToastAction())
@@ -58,12 +61,14 @@ public class LocationListViewModel implements ListViewModel {
                 new LocationDelegate(actionHandler),
                 new AdvertisementDelegate(actionHandler)
         );
-        mListConfig = createListConfig(context, mAdapter);
+        mListConfig = createListConfig(context, mAdapter, recycledViewPool, poolSizer);
 
         loadData();
     }
 
-    private ListConfig createListConfig(final Context context, final RecyclerView.Adapter adapter) {
+    private ListConfig createListConfig(final Context context, final RecyclerView.Adapter adapter,
+                                        final RecyclerView.RecycledViewPool recycledViewPool,
+                                        final AdaptivePoolSizer poolSizer) {
         final int divider = context.getResources().getDimensionPixelSize(com.drextended.rvdatabinding.R.dimen.rvdb_list_divider_size_default);
         return new ListConfig.Builder(adapter)
                 .setLayoutManagerProvider(new ListConfig.SimpleGridLayoutManagerProvider(2, new GridLayoutManager.SpanSizeLookup() {
@@ -72,7 +77,9 @@ public class LocationListViewModel implements ListViewModel {
                         return mAdapter.getItems().get(position) instanceof Advertisement ? 2 : 1;
                     }
                 }))
-                .addItemDecoration(new DividerItemDecoration(divider, SPACE_LEFT|SPACE_TOP|SPACE_RIGHT|SPACE_BOTTOM))
+                .addItemDecoration(new DividerItemDecoration(divider, SPACE_GRID|SPACE_LEFT|SPACE_TOP|SPACE_RIGHT|SPACE_BOTTOM))
+                .setRecycledViewPool(recycledViewPool)
+                .setPoolSizer(poolSizer)
                 .build(context);
     }
 
@@ -85,8 +92,7 @@ public class LocationListViewModel implements ListViewModel {
     public void onDestroy() {}
 
     private void loadData() {
-        mAdapter.setItems(getDummyData());
-        mAdapter.notifyDataSetChanged();
+        mAdapter.submitList(getDummyData());
     }
 
     private List<BaseModel> getDummyData() {
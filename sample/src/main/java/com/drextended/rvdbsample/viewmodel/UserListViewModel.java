@@ -16,10 +16,12 @@
 package com.drextended.rvdbsample.viewmodel;
 
 import android.content.Context;
+import android.support.v7.widget.RecyclerView;
 import android.view.View;
 
 import com.drextended.actionhandler.listener.ActionClickListener;
 import com.drextended.rvdatabinding.ListConfig;
+import com.drextended.rvdatabinding.adapter.AdaptivePoolSizer;
 import com.drextended.rvdatabinding.adapter.BindableAdapter;
 import com.drextended.rvdbsample.model.ActionType;
 import com.drextended.rvdbsample.model.BaseModel;
@@ -40,7 +42,8 @@ public class UserListViewModel implements ListViewModel, ActionClickListener {
     private BindableAdapter<List<BaseModel>> mAdapter;
     private SimpleCallback mCallback;
 
-    public UserListViewModel(Context context, final SimpleCallback callback) {
+    public UserListViewModel(Context context, final RecyclerView.RecycledViewPool recycledViewPool,
+                             final AdaptivePoolSizer poolSizer, final SimpleCallback callback) {
         mCallback = callback;
         mAdapter = new BindableAdapter<>(
                 new UserDelegate(this),
@@ -48,6 +51,8 @@ public class UserListViewModel implements ListViewModel, ActionClickListener {
         );
         mListConfig = new ListConfig.Builder(mAdapter)
                 .setDefaultDividerEnabled(true)
+                .setRecycledViewPool(recycledViewPool)
+                .setPoolSizer(poolSizer)
                 .build(context);
         loadData();
     }
@@ -63,8 +68,7 @@ public class UserListViewModel implements ListViewModel, ActionClickListener {
     }
 
     private void loadData() {
-        mAdapter.setItems(getDummyData());
-        mAdapter.notifyDataSetChanged();
+        mAdapter.submitList(getDummyData());
     }
 
     private List<BaseModel> getDummyData() {
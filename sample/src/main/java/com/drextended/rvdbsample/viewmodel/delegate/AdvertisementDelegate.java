@@ -47,7 +47,18 @@ public class AdvertisementDelegate extends ActionAdapterDelegate<BaseModel, Item
     @NonNull
     @Override
     public BindingHolder<ItemAdvertismentBinding> onCreateViewHolder(final ViewGroup parent) {
-        return BindingHolder.newInstance(R.layout.item_advertisment, LayoutInflater.from(parent.getContext()), parent, false);
+        return BindingHolder.newInstance(getItemLayoutResId(), LayoutInflater.from(parent.getContext()), parent, false);
+    }
+
+    @Override
+    public int getItemLayoutResId() {
+        return R.layout.item_advertisment;
+    }
+
+    @Override
+    public int getGlobalViewType() {
+        // action handler is set on bind, so holders can be shared between lists
+        return R.layout.item_advertisment;
     }
 
     @Override
@@ -57,6 +68,11 @@ public class AdvertisementDelegate extends ActionAdapterDelegate<BaseModel, Item
         holder.getBinding().setActionHandler(getActionHandler());
     }
 
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
     @Override
     public long getItemId(final List<BaseModel> items, final int position) {
         return items.get(position).getId();
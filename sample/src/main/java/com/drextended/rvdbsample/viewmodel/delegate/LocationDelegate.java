@@ -46,7 +46,18 @@ public class LocationDelegate extends ActionAdapterDelegate<BaseModel, ItemLocat
     @NonNull
     @Override
     public BindingHolder<ItemLocationBinding> onCreateViewHolder(final ViewGroup parent) {
-        return BindingHolder.newInstance(R.layout.item_location, LayoutInflater.from(parent.getContext()), parent, false);
+        return BindingHolder.newInstance(getItemLayoutResId(), LayoutInflater.from(parent.getContext()), parent, false);
+    }
+
+    @Override
+    public int getItemLayoutResId() {
+        return R.layout.item_location;
+    }
+
+    @Override
+    public int getGlobalViewType() {
+        // action handler is set on bind, so holders can be shared between lists
+        return R.layout.item_location;
     }
 
     @Override
@@ -56,6 +67,11 @@ public class LocationDelegate extends ActionAdapterDelegate<BaseModel, ItemLocat
         holder.getBinding().setActionHandler(getActionHandler());
     }
 
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
     @Override
     public long getItemId(final List<BaseModel> items, final int position) {
         return items.get(position).getId();
@@ -46,7 +46,18 @@ public class UserDelegate extends ActionAdapterDelegate<BaseModel, ItemUserBindi
     @NonNull
     @Override
     public BindingHolder<ItemUserBinding> onCreateViewHolder(final ViewGroup parent) {
-        return BindingHolder.newInstance(R.layout.item_user, LayoutInflater.from(parent.getContext()), parent, false);
+        return BindingHolder.newInstance(getItemLayoutResId(), LayoutInflater.from(parent.getContext()), parent, false);
+    }
+
+    @Override
+    public int getItemLayoutResId() {
+        return R.layout.item_user;
+    }
+
+    @Override
+    public int getGlobalViewType() {
+        // action handler is set on bind, so holders can be shared between lists
+        return R.layout.item_user;
     }
 
     @Override
@@ -56,6 +67,11 @@ public class UserDelegate extends ActionAdapterDelegate<BaseModel, ItemUserBindi
         holder.getBinding().setActionHandler(getActionHandler());
     }
 
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
     @Override
     public long getItemId(final List<BaseModel> items, final int position) {
         return items.get(position).getId();